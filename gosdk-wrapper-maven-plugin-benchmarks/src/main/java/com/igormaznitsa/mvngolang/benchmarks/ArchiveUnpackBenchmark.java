@@ -0,0 +1,127 @@
+package com.igormaznitsa.mvngolang.benchmarks;
+
+import com.igormaznitsa.mvngolang.utils.ArchiveUnpacker;
+import com.igormaznitsa.mvngolang.utils.StandardGzipDecompressor;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.compress.archivers.ArchiveException;
+import org.apache.commons.io.file.PathUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Unpacking of synthetic GoSDK archives into file system. TAR_GZ and ZIP archives have separate
+ * states because GZIP decompressor is not used for ZIP archives.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ArchiveUnpackBenchmark {
+
+  private static SyntheticGoSdk makeSdk() {
+    return new SyntheticGoSdk(8000, 4, 16 * 1024 * 1024);
+  }
+
+  /**
+   * Common part of states, keeps folder with archive and makes new target folder for every
+   * invocation.
+   */
+  public abstract static class UnpackState {
+    Path folder;
+    Path archive;
+    Path target;
+    ArchiveUnpacker unpacker;
+
+    abstract Path makeArchive(Path folder) throws IOException;
+
+    abstract ArchiveUnpacker makeUnpacker();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+      this.folder = Files.createTempDirectory("gosdk-bench-unpack");
+      this.archive = this.makeArchive(this.folder);
+      this.unpacker = this.makeUnpacker();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareTarget() throws IOException {
+      this.target = Files.createTempDirectory(this.folder, "unpacked");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteTarget() throws IOException {
+      PathUtils.deleteDirectory(this.target);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+      PathUtils.deleteDirectory(this.folder);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class TarGzState extends UnpackState {
+    @Param({"1", "4"})
+    public int writerThreads;
+
+    @Param({"DEFAULT", "LARGE_BUFFER", "READ_AHEAD"})
+    public StandardGzipDecompressor gzipDecompressor;
+
+    @Override
+    Path makeArchive(final Path folder) throws IOException {
+      final Path result = folder.resolve("go.tar.gz");
+      makeSdk().writeTarGz(result);
+      return result;
+    }
+
+    @Override
+    ArchiveUnpacker makeUnpacker() {
+      return ArchiveUnpacker.INSTANCE
+          .withWriterThreads(this.writerThreads)
+          .withGzipDecompressor(this.gzipDecompressor);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class ZipState extends UnpackState {
+    @Param({"1", "4"})
+    public int writerThreads;
+
+    @Override
+    Path makeArchive(final Path folder) throws IOException {
+      final Path result = folder.resolve("go.zip");
+      makeSdk().writeZip(result);
+      return result;
+    }
+
+    @Override
+    ArchiveUnpacker makeUnpacker() {
+      return ArchiveUnpacker.INSTANCE.withWriterThreads(this.writerThreads);
+    }
+  }
+
+  @Benchmark
+  public void unpackTarGz(final TarGzState state) throws IOException, ArchiveException {
+    state.unpacker.unpackArchive(state.archive.toFile(), state.target.toFile(), null);
+  }
+
+  @Benchmark
+  public void unpackZip(final ZipState state) throws IOException, ArchiveException {
+    state.unpacker.unpackArchive(state.archive.toFile(), state.target.toFile(), null);
+  }
+}
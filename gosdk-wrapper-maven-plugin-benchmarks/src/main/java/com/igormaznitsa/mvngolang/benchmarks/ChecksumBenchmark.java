@@ -0,0 +1,68 @@
+package com.igormaznitsa.mvngolang.benchmarks;
+
+import com.igormaznitsa.mvngolang.GoRecordChecksum;
+import com.igormaznitsa.mvngolang.utils.ChecksumDigester;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Checksum calculation over data of GoSDK archive size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ChecksumBenchmark {
+
+  @Param({"MD5", "SHA256", "CRC32C"})
+  public GoRecordChecksum checksum;
+
+  private byte[] data;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.data = new byte[64 * 1024 * 1024];
+    new Random(12345L).nextBytes(this.data);
+  }
+
+  @Benchmark
+  public String makeHex() throws IOException {
+    return this.checksum.makeHex(new ByteArrayInputStream(this.data));
+  }
+
+  @Benchmark
+  public String digester() throws IOException {
+    final ChecksumDigester digester = new ChecksumDigester(EnumSet.of(this.checksum));
+    digester.update(new ByteArrayInputStream(this.data), Long.MAX_VALUE);
+    return digester.getHex(this.checksum);
+  }
+
+  @Benchmark
+  public long digesterAllInOnePass() throws IOException {
+    final ChecksumDigester digester =
+        new ChecksumDigester(EnumSet.allOf(GoRecordChecksum.class));
+    digester.update(new ByteArrayInputStream(this.data), Long.MAX_VALUE);
+    long result = 0L;
+    for (final GoRecordChecksum c : digester.getChecksums()) {
+      result += digester.getHex(c).length();
+    }
+    return result;
+  }
+}
@@ -0,0 +1,85 @@
+package com.igormaznitsa.mvngolang.benchmarks;
+
+import com.igormaznitsa.mvngolang.utils.StandardGzipDecompressor;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Decompression of synthetic GoSDK tar.gz in memory, compares GZIP decompressors without file
+ * system costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GzipDecompressorBenchmark {
+
+  @Param({"DEFAULT", "LARGE_BUFFER", "READ_AHEAD"})
+  public StandardGzipDecompressor gzipDecompressor;
+
+  private byte[] tarGz;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    final SyntheticGoSdk sdk = new SyntheticGoSdk(8000, 4, 16 * 1024 * 1024);
+    final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (final GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      sdk.writeTar(gzip);
+    }
+    this.tarGz = compressed.toByteArray();
+  }
+
+  @Benchmark
+  public long inflate(final Blackhole blackhole) throws IOException {
+    final byte[] buffer = new byte[64 * 1024];
+    long total = 0L;
+    try (final InputStream in =
+             this.gzipDecompressor.decompress(new ByteArrayInputStream(this.tarGz))) {
+      int read;
+      while ((read = in.read(buffer)) >= 0) {
+        total += read;
+      }
+    }
+    blackhole.consume(buffer);
+    return total;
+  }
+
+  @Benchmark
+  public long inflateAndParseTar(final Blackhole blackhole) throws IOException {
+    final byte[] buffer = new byte[64 * 1024];
+    long total = 0L;
+    try (final TarArchiveInputStream tar = new TarArchiveInputStream(
+        this.gzipDecompressor.decompress(new ByteArrayInputStream(this.tarGz)))) {
+      ArchiveEntry entry;
+      while ((entry = tar.getNextEntry()) != null) {
+        blackhole.consume(entry.getName());
+        int read;
+        while ((read = tar.read(buffer)) >= 0) {
+          total += read;
+        }
+      }
+    }
+    return total;
+  }
+}
@@ -0,0 +1,74 @@
+package com.igormaznitsa.mvngolang.benchmarks;
+
+import com.igormaznitsa.mvngolang.GoRecord;
+import com.igormaznitsa.mvngolang.utils.GoRecordExtractor;
+import com.igormaznitsa.mvngolang.utils.SdkListFormat;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing of GoSDK lists, uses the same site fixtures as plugin tests. Parsing with format
+ * sniffing is compared with trial parsing by all parsers in the default order and with targeted
+ * lookup of single GoSDK archive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class SdkListParseBenchmark {
+
+  @Param({"plain_text.txt", "go.dev_dl_.html", "go_sdks.json", "storage.googleapis.com.xml"})
+  public String site;
+
+  private String text;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    this.text = IOUtils.resourceToString("/sites/" + this.site, StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public Optional<List<GoRecord>> findRecords() {
+    return GoRecordExtractor.getInstance().findRecords("", this.text);
+  }
+
+  @Benchmark
+  public Optional<List<GoRecord>> findRecordsByTrial() {
+    for (final SdkListFormat format : SdkListFormat.DEFAULT_ORDER) {
+      final Optional<List<GoRecord>> result = format.parse("", this.text);
+      if (result.isPresent()) {
+        return result;
+      }
+    }
+    return Optional.empty();
+  }
+
+  @Benchmark
+  public Optional<GoRecord.GoFile> findSdkFile() {
+    return GoRecordExtractor.getInstance().findSdkFile("", null, this.text,
+        SdkListFormat.DEFAULT_ORDER, "go1.10.1.linux-amd64", List.of("tar.gz", "zip"));
+  }
+
+  @Benchmark
+  public Optional<SdkListFormat> sniffFormat() {
+    return GoRecordExtractor.sniffFormat(null, this.text);
+  }
+}
@@ -0,0 +1,92 @@
+package com.igormaznitsa.mvngolang.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+
+/**
+ * Generator of synthetic archives shaped like GoSDK distribution: many small source files and a few
+ * big binaries. Content is generated by fixed seed so that archives are the same between runs.
+ */
+final class SyntheticGoSdk {
+
+  private static final String[] WORDS = {"func", "return", "package", "import", "type", "struct",
+      "interface", "if", "err", "nil", "for", "range", "var", "const", "go", "chan", "select",
+      "defer", "map", "string", "int", "byte", "error", "context", "sync", "fmt", "os", "io"};
+
+  private final Map<String, byte[]> files = new LinkedHashMap<>();
+
+  SyntheticGoSdk(final int smallFiles, final int bigFiles, final int bigFileSize) {
+    final Random random = new Random(0x60_5D_4BL);
+    for (int i = 0; i < smallFiles; i++) {
+      this.files.put(
+          String.format("go/src/pkg%03d/file%05d.go", i % 300, i),
+          makeSource(random, 512 + random.nextInt(16 * 1024)));
+    }
+    for (int i = 0; i < bigFiles; i++) {
+      this.files.put("go/pkg/tool/linux_amd64/tool" + i, makeBinary(random, bigFileSize));
+    }
+  }
+
+  private static byte[] makeSource(final Random random, final int size) {
+    final StringBuilder buffer = new StringBuilder(size + 16);
+    while (buffer.length() < size) {
+      buffer.append(WORDS[random.nextInt(WORDS.length)])
+          .append(random.nextInt(8) == 0 ? '\n' : ' ');
+    }
+    return buffer.toString().getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static byte[] makeBinary(final Random random, final int size) {
+    final byte[] result = new byte[size];
+    // half of the binary is random data and half is repeating blocks to be partly compressible
+    random.nextBytes(result);
+    for (int i = size / 2; i < size; i++) {
+      result[i] = result[i % 4096];
+    }
+    return result;
+  }
+
+  Map<String, byte[]> getFiles() {
+    return this.files;
+  }
+
+  void writeTarGz(final Path file) throws IOException {
+    try (final OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+      this.writeTar(out);
+    }
+  }
+
+  void writeTar(final OutputStream out) throws IOException {
+    final TarArchiveOutputStream tar = new TarArchiveOutputStream(out);
+    tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+    for (final Map.Entry<String, byte[]> e : this.files.entrySet()) {
+      final TarArchiveEntry entry = new TarArchiveEntry(e.getKey());
+      entry.setSize(e.getValue().length);
+      tar.putArchiveEntry(entry);
+      tar.write(e.getValue());
+      tar.closeArchiveEntry();
+    }
+    tar.finish();
+  }
+
+  void writeZip(final Path file) throws IOException {
+    try (final ZipArchiveOutputStream zip = new ZipArchiveOutputStream(file)) {
+      for (final Map.Entry<String, byte[]> e : this.files.entrySet()) {
+        zip.putArchiveEntry(new ZipArchiveEntry(e.getKey()));
+        zip.write(e.getValue());
+        zip.closeArchiveEntry();
+      }
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package com.igormaznitsa.mvngolang;
 
 import static com.igormaznitsa.mvngolang.utils.FileUtils.isHttpOrHttps;
+import static com.igormaznitsa.mvngolang.utils.FileUtils.moveFolder;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.System.out;
@@ -12,17 +13,34 @@ import static java.util.stream.Collectors.toSet;
 
 import com.igormaznitsa.mvngolang.utils.ApacheHttpClient5Loader;
 import com.igormaznitsa.mvngolang.utils.ArchiveUnpacker;
+import com.igormaznitsa.mvngolang.utils.ChecksumDigester;
+import com.igormaznitsa.mvngolang.utils.ContentAddressedStore;
+import com.igormaznitsa.mvngolang.utils.FileUtils.MoveResult;
 import com.igormaznitsa.mvngolang.utils.GoRecordExtractor;
+import com.igormaznitsa.mvngolang.utils.GzipDecompressor;
+import com.igormaznitsa.mvngolang.utils.ListBucketStreamParser;
 import com.igormaznitsa.mvngolang.utils.OsUtils;
 import com.igormaznitsa.mvngolang.utils.ProxySettings;
+import com.igormaznitsa.mvngolang.utils.ResolvedSdkCache;
+import com.igormaznitsa.mvngolang.utils.SdkIndexCache;
+import com.igormaznitsa.mvngolang.utils.SdkListFormat;
+import com.igormaznitsa.mvngolang.utils.SdkManifest;
+import com.igormaznitsa.mvngolang.utils.SdkStoreCleaner;
+import com.igormaznitsa.mvngolang.utils.SdkStoreLock;
+import com.igormaznitsa.mvngolang.utils.StandardGzipDecompressor;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.net.URI;
+import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.PosixFilePermission;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -32,14 +50,30 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.SystemUtils;
 import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.core5.concurrent.Cancellable;
 import org.apache.hc.core5.http.Header;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.resolver.ArtifactResolutionException;
@@ -52,9 +86,6 @@ import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.settings.Proxy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
 
 @SuppressWarnings({"ReassignedVariable", "CanBeFinal", "SameParameterValue"})
 public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
@@ -67,9 +98,15 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
           "application/x-tar",
           "application/x-gzip"
       );
-  private static final long LOCK_FILE_SLEEP_MS = 100;
+  private static final List<String> SDK_LIST_MIMES =
+      List.of("application/xml", "application/json", "text/plain", "text/html");
+  private static final int MAX_SDK_LIST_PAGES = 64;
+  private static final List<String> SDK_ARCHIVE_EXTENSIONS = List.of("tar.gz", "zip");
   private static final Duration DELAY_LOCK_FILE_NOTIFICATION = Duration.ofSeconds(15);
   private static final Logger log = LoggerFactory.getLogger(AbstractGolangSdkAwareMojo.class);
+  private final AtomicBoolean goSdkInstalled = new AtomicBoolean();
+  private volatile boolean loadIndicatorDisabled;
+  private HttpClient httpClient;
   /**
    * Section describing proxy settings.
    * <pre>{@code
@@ -108,6 +145,26 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
    */
   @Parameter(property = "mvn.golang.sdk.site", name = "sdkSite", defaultValue = "AUTO")
   private String sdkSite;
+
+  /**
+   * If the SDK site mode contains several links (for instance AUTO) then load SDK list from all of them concurrently, the first non-empty list is used and other requests are cancelled.
+   * By default, the links are tried one by one.
+   *
+   * @see #sdkSite
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.sdk.site.race", name = "sdkSiteRace", defaultValue = "false")
+  private boolean sdkSiteRace;
+
+  /**
+   * Comma separated list of allowed formats of GoSDK list in order of attempts: PLAIN_TEXT, XML, JSON, HTML. The format detected by content type and first chars of loaded list is tried first.
+   * If empty then all formats are allowed in the default order.
+   *
+   * @see com.igormaznitsa.mvngolang.utils.SdkListFormat
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.sdk.list.formats", name = "sdkListFormats")
+  private String sdkListFormats;
   /**
    * Allows to define base SDK archive base name. If not defined then base name will be synthesized automatically.
    *
@@ -239,6 +296,136 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
   @Parameter(property = "mvn.golang.sdk.archive.file.auto.extension", name = "sdkArchiveFileAutoExtension", defaultValue = "true")
   private boolean sdkArchiveFileAutoExtension;
 
+  /**
+   * Number of concurrent ranged connections to download GoSDK archive. Segmented download is used only if the server reports byte range support, otherwise the archive is loaded through single stream.
+   * Values less than 2 turn off segmented download, max value is 16.
+   *
+   * @see #downloadSegmentMinSize
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.download.segments", name = "downloadSegments", defaultValue = "1")
+  private int downloadSegments = 1;
+
+  /**
+   * Min size of one segment in bytes for segmented download of GoSDK archive. Number of segments is reduced if the archive is too small to fill all of them.
+   *
+   * @see #downloadSegments
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.download.segment.min.size", name = "downloadSegmentMinSize", defaultValue = "8388608")
+  private long downloadSegmentMinSize = 8L * 1024L * 1024L;
+
+  /**
+   * Keep partially downloaded GoSDK archive in the download folder if the download is interrupted and resume it with HTTP range request during next attempt.
+   * The archive is saved with stable name and accompanied by a state file, segmented download is not used in the mode.
+   *
+   * @see #downloadArchiveFolder
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.resumable.download", name = "resumableDownload", defaultValue = "false")
+  private boolean resumableDownload;
+
+  /**
+   * Unpack GoSDK archive directly from HTTP stream while it is being downloaded, without saving the archive as file.
+   * Checksum of the archive is checked before the unpacked folder is moved into the store folder.
+   * The flag is ignored if the archive is loaded from Maven repository or local file, or if any of {@link #keepDownloadedArchive} or {@link #resumableDownload} is enabled, segmented download is not used in the mode.
+   *
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.pipelined.unpack", name = "pipelinedUnpack", defaultValue = "false")
+  private boolean pipelinedUnpack;
+
+  /**
+   * Number of threads to write files unpacked from GoSDK archive. If more than 1 then one thread decompresses the archive and the pool of threads writes files,
+   * it speeds up unpacking on fast disks where creation of many small files is the bottleneck.
+   * Downloaded ZIP archives are unpacked through their central directory and entries are inflated in parallel by the same number of threads.
+   *
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.unpack.threads", name = "unpackThreads", defaultValue = "1")
+  private int unpackThreads = 1;
+
+  /**
+   * GZIP decompressor to unpack TAR_GZ archives of GoSDK. Allowed values are DEFAULT, LARGE_BUFFER, READ_AHEAD or name of class implementing {@link com.igormaznitsa.mvngolang.utils.GzipDecompressor}.
+   * READ_AHEAD decompresses data in separate thread in parallel with archive entry processing.
+   *
+   * @see com.igormaznitsa.mvngolang.utils.StandardGzipDecompressor
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.gzip.decompressor", name = "gzipDecompressor", defaultValue = "DEFAULT")
+  private String gzipDecompressor = "DEFAULT";
+
+  /**
+   * Keep files of unpacked GoSDKs in content addressed store placed in the store folder, files are identified by SHA-256 and SDK folders contain hard links to them.
+   * Files shared by several GoSDK versions are kept on disk only once. If the file system doesn't support hard links then files are kept as is.
+   * Files of SDK folders should not be changed in the mode because the changes affect all SDKs sharing the same file.
+   *
+   * @see #storeFolder
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.content.addressed.store", name = "contentAddressedStore", defaultValue = "false")
+  private boolean contentAddressedStore;
+
+  /**
+   * Integrity check of cached GoSDK folder, allowed values NONE, FAST and DEEP. Manifest of GoSDK files is written during installation and
+   * FAST mode checks sizes and modification times of the files, DEEP mode re-calculates SHA-256 of the files (the hashes are saved in manifest if GoSDK is installed in DEEP mode).
+   * Damaged files are repaired from the GoSDK archive. Not completed installation is always checked in FAST mode.
+   * GoSDK folder without manifest (installed by previous versions) is adopted, in FAST and DEEP modes its files are compared with the GoSDK archive before.
+   *
+   * @see com.igormaznitsa.mvngolang.SdkIntegrityCheck
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.sdk.integrity.check", name = "sdkIntegrityCheck", defaultValue = "NONE")
+  private String sdkIntegrityCheck = "NONE";
+
+  /**
+   * Max summary size of cached GoSDK folders in megabytes, least recently used GoSDKs are evicted from the store folder after resolution of GoSDK if the size is exceeded. Zero means no limit.
+   * GoSDKs resolved in the current build, used during last day or locked by other processes are not evicted.
+   * Automatic eviction runs after installation of new GoSDK or once per day, use goal {@code prune-sdk-cache} for full pruning.
+   *
+   * @see #storeFolder
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.sdk.cache.max.size.mb", name = "sdkCacheMaxSizeMb", defaultValue = "0")
+  private long sdkCacheMaxSizeMb;
+
+  /**
+   * Max number of cached GoSDKs, least recently used GoSDKs are evicted from the store folder after resolution of GoSDK if the number is exceeded. Zero means no limit.
+   *
+   * @see #storeFolder
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.sdk.cache.max.count", name = "sdkCacheMaxCount", defaultValue = "0")
+  private int sdkCacheMaxCount;
+
+  /**
+   * Max number of days since last use of cached GoSDK, not used GoSDKs are evicted from the store folder after resolution of GoSDK. Zero means no limit.
+   *
+   * @see #storeFolder
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.sdk.cache.max.age.days", name = "sdkCacheMaxAgeDays", defaultValue = "0")
+  private int sdkCacheMaxAgeDays;
+
+  /**
+   * Keep parsed GoSDK lists loaded from SDK sites in the store folder, the cached list is revalidated through conditional GET if it is older than {@link #sdkListCacheTtlMs}.
+   * Offline session and failed requests use the cached list.
+   *
+   * @see #storeFolder
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.sdk.list.cache", name = "sdkListCache", defaultValue = "true")
+  private boolean sdkListCache = true;
+
+  /**
+   * Time in milliseconds during which cached GoSDK list is used without any request to the SDK site.
+   *
+   * @see #sdkListCache
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.sdk.list.cache.ttl.ms", name = "sdkListCacheTtlMs", defaultValue = "3600000")
+  private long sdkListCacheTtlMs = 3_600_000L;
+
   private static String makeBaseSdkName(
       final String sdkVersion,
       final String os,
@@ -291,7 +478,65 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
     return progress;
   }
 
-  private String findSdkBaseName() {
+  /**
+   * Make GoSDK base name for target, not defined target values are replaced by the mojo parameters.
+   *
+   * @param target GoSDK target, must not be null
+   * @return GoSDK base name
+   * @throws MojoExecutionException if GoSDK base name is forced by {@code sdkArchiveBaseName}
+   */
+  protected String findSdkBaseName(final GoSdkTarget target) throws MojoExecutionException {
+    if (!isNullOrEmpty(this.sdkArchiveBaseName)) {
+      throw new MojoExecutionException(
+          "GoSDK targets can't be combined with forced GoSDK base name: " + this.sdkArchiveBaseName);
+    }
+    return makeBaseSdkName(
+        isNullOrEmpty(target.goVersion) ? this.goVersion : target.goVersion.trim(),
+        isNullOrEmpty(target.os) ? this.findOs() : target.os.trim(),
+        isNullOrEmpty(target.arch) ? this.findArch() : target.arch.trim(),
+        isNullOrEmpty(target.osxVersion) ? this.osxVersion : target.osxVersion.trim());
+  }
+
+  /**
+   * Check that GoSDK source is forced by parameters and doesn't depend on GoSDK base name.
+   *
+   * @return true if any of direct link, artifact, archive name, base name or pre-installed folder
+   * is defined
+   */
+  protected boolean isSdkSourceForced() {
+    return this.forceGoSdkFromPath
+        || !isNullOrEmpty(this.preinstalledSdkFolder)
+        || !isNullOrEmpty(this.sdkDownloadUrl)
+        || !isNullOrEmpty(this.sdkArtifactId)
+        || !isNullOrEmpty(this.sdkArchiveFileName)
+        || !isNullOrEmpty(this.sdkArchiveBaseName)
+        || !isNullOrEmpty(this.expectedArchiveMd5);
+  }
+
+  /**
+   * Check that the mojo needs GoSDK defined by the mojo parameters.
+   *
+   * @return true if GoSDK should be resolved before {@link #onMojoExecute(Path)}, false if the
+   * mojo resolves GoSDKs itself and gets null as GoSDK folder
+   */
+  protected boolean isGoSdkRequired() {
+    return true;
+  }
+
+  /**
+   * Disable CLI load indicator, for instance if several GoSDKs are loaded concurrently.
+   */
+  protected void disableLoadIndicator() {
+    this.loadIndicatorDisabled = true;
+  }
+
+  /**
+   * Make GoSDK base name from the mojo parameters, forced {@code sdkArchiveBaseName} is used if
+   * defined.
+   *
+   * @return GoSDK base name
+   */
+  protected String findSdkBaseName() {
     if (isNullOrEmpty(this.sdkArchiveBaseName)) {
       this.logOptional("Making base sdk name on provided parameters");
       return makeBaseSdkName(this.goVersion, this.findOs(), this.findArch(), this.osxVersion);
@@ -306,7 +551,10 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
     final long startTime = System.currentTimeMillis();
     final Path goSdkFolder;
 
-    if (this.forceGoSdkFromPath) {
+    if (!this.isGoSdkRequired()) {
+      this.logDebug("Mojo doesn't require GoSDK resolution");
+      goSdkFolder = null;
+    } else if (this.forceGoSdkFromPath) {
       final String path = OsUtils.findEnvPath().orElse(null);
       if (path == null) {
         this.getLog()
@@ -315,7 +563,7 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
             "Can't find PATH environment variable in host OS environment");
       }
       this.getLog().warn("Direct request to search a GoSDK among OS PATH folders: " + path);
-      goSdkFolder = OsUtils.findGoSdkFolderInPath(path).orElse(null);
+      goSdkFolder = ResolvedSdkCache.findInPath(path).orElse(null);
       if (goSdkFolder == null) {
         throw new MojoFailureException(
             "Can't find a GoSDK folder among folders defined in OS PATH environment variable: " +
@@ -332,6 +580,7 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
         }
         this.logOptional("Found sdkBaseName: " + sdkBaseName);
         goSdkFolder = this.ensureCachedGoSdk(sdkBaseName);
+        this.evictCachedGoSdks();
       } else {
         this.logInfo("Provided pre-installed GoSDK folder: " + this.preinstalledSdkFolder);
         goSdkFolder = new File(this.preinstalledSdkFolder).toPath();
@@ -350,8 +599,29 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
     }
   }
 
-  private Path ensureCachedGoSdk(final String sdkBaseName)
+  /**
+   * Find cached GoSDK or load and unpack it into the store folder. Can be called concurrently for
+   * different GoSDKs.
+   *
+   * @param sdkBaseName base name of GoSDK, must not be null
+   * @return folder of cached GoSDK
+   * @throws MojoFailureException   if GoSDK can't be loaded
+   * @throws MojoExecutionException if any error during processing
+   */
+  protected Path ensureCachedGoSdk(final String sdkBaseName)
       throws MojoFailureException, MojoExecutionException {
+    final Path resolvedSdkFolder =
+        ResolvedSdkCache.findInStore(this.storeFolder.toPath(), sdkBaseName).orElse(null);
+    if (resolvedSdkFolder != null) {
+      this.logOptional("Found already resolved GoSDK: " + resolvedSdkFolder);
+      try {
+        SdkStoreCleaner.touch(this.storeFolder.toPath(), sdkBaseName);
+      } catch (IOException ex) {
+        this.logWarn("Can't mark GoSDK as accessed: " + ex.getMessage());
+      }
+      return resolvedSdkFolder;
+    }
+
     final Path cacheFolder;
     try {
       this.logOptional("Finding or creating store folder: " + this.storeFolder);
@@ -361,56 +631,248 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
           "Can't create cache folder or it is not a folder exists: " + this.storeFolder);
     }
 
-    try {
-      final File lockFile = this.lockSdkFolder(cacheFolder.toFile(), sdkBaseName);
-      try {
-        Path preparedSdkFolder = cacheFolder.resolve(sdkBaseName);
-        if (!Files.isDirectory(preparedSdkFolder)) {
-          this.logOptional("There is no cached GoSDK: " + preparedSdkFolder);
-          if (this.session.isOffline()) {
-            throw new MojoFailureException(
-                "There is no cached GoSDK, the session is offline one: " + preparedSdkFolder);
-          } else {
-            final Path tempSdkFolder = preparedSdkFolder.resolveSibling(
-                ".unpack" + preparedSdkFolder.getFileName().toString());
-            long start = System.currentTimeMillis();
-            try {
-              this.loadAndUnpackGoSdk(sdkBaseName, tempSdkFolder);
-            } finally {
-              this.logDebug(
-                  "Elapsed time for loadAndUnpackGoSdk: " + (System.currentTimeMillis() - start) +
-                      " ms");
+    try (final SdkStoreLock ignored = this.lockSdkFolder(cacheFolder, sdkBaseName)) {
+      final SdkIntegrityCheck integrityCheck = this.findSdkIntegrityCheck();
+      Path preparedSdkFolder = cacheFolder.resolve(sdkBaseName);
+      if (Files.isDirectory(preparedSdkFolder)) {
+        this.checkSdkIntegrity(cacheFolder, sdkBaseName, preparedSdkFolder, integrityCheck);
+      }
+      if (!Files.isDirectory(preparedSdkFolder)) {
+        this.logOptional("There is no cached GoSDK: " + preparedSdkFolder);
+        if (this.session.isOffline()) {
+          throw new MojoFailureException(
+              "There is no cached GoSDK, the session is offline one: " + preparedSdkFolder);
+        } else {
+          ResolvedSdkCache.invalidateInStore(cacheFolder, sdkBaseName);
+          final Path tempSdkFolder = preparedSdkFolder.resolveSibling(
+              ".unpack" + preparedSdkFolder.getFileName().toString());
+          long start = System.currentTimeMillis();
+          try {
+            this.loadAndUnpackGoSdk(sdkBaseName, tempSdkFolder, null);
+          } finally {
+            this.logDebug(
+                "Elapsed time for loadAndUnpackGoSdk: " + (System.currentTimeMillis() - start) +
+                    " ms");
+          }
+          start = System.currentTimeMillis();
+          try {
+            final Path goFolder = tempSdkFolder.resolve("go");
+            final Path sourcePath;
+            if (Files.isDirectory(goFolder)) {
+              sourcePath = goFolder;
+            } else {
+              sourcePath = tempSdkFolder;
             }
-            start = System.currentTimeMillis();
-            try {
-              final Path goFolder = tempSdkFolder.resolve("go");
-              final Path sourcePath;
-              if (Files.isDirectory(goFolder)) {
-                sourcePath = goFolder;
-              } else {
-                sourcePath = tempSdkFolder;
-              }
-              this.logOptional("Moving unpacked folder " + sourcePath + " to " + preparedSdkFolder);
-              FileUtils.moveDirectory(sourcePath.toFile(), preparedSdkFolder.toFile());
-            } finally {
-              if (Files.exists(tempSdkFolder)) {
-                this.logOptional("Deleting temp sdk folder: " + tempSdkFolder);
-                FileUtils.deleteDirectory(tempSdkFolder.toFile());
-              }
-              this.logDebug("Elapsed time for all GoSDK unpacking operations: " +
-                  (System.currentTimeMillis() - start) + " ms");
+            if (this.contentAddressedStore) {
+              this.materializeInContentAddressedStore(cacheFolder, sourcePath);
+            }
+            // manifest is made after linking because linked files get times of shared blobs
+            this.logOptional("Writing manifest of GoSDK files");
+            SdkManifest.create(sourcePath, integrityCheck == SdkIntegrityCheck.DEEP)
+                .write(SdkManifest.findManifestFile(cacheFolder, sdkBaseName));
+            this.logOptional("Moving unpacked folder " + sourcePath + " to " + preparedSdkFolder);
+            final long moveStart = System.currentTimeMillis();
+            final MoveResult moveResult = moveFolder(sourcePath, preparedSdkFolder);
+            final long moveTime = System.currentTimeMillis() - moveStart;
+            if (moveResult == MoveResult.COPY) {
+              this.logWarn(String.format(
+                  "Unpacked GoSDK folder can't be renamed, copied instead (%d ms): %s", moveTime,
+                  preparedSdkFolder));
+            } else {
+              this.logDebug(String.format("GoSDK folder promoted by %s in %d ms", moveResult,
+                  moveTime));
+            }
+            this.goSdkInstalled.set(true);
+          } finally {
+            if (Files.exists(tempSdkFolder)) {
+              this.logOptional("Deleting temp sdk folder: " + tempSdkFolder);
+              FileUtils.deleteDirectory(tempSdkFolder.toFile());
             }
+            this.logDebug("Elapsed time for all GoSDK unpacking operations: " +
+                (System.currentTimeMillis() - start) + " ms");
           }
         }
-        return preparedSdkFolder;
-      } finally {
-        this.unlockSdkFolder(lockFile);
       }
+      ResolvedSdkCache.registerInStore(cacheFolder, sdkBaseName, preparedSdkFolder);
+      SdkStoreCleaner.touch(cacheFolder, sdkBaseName);
+      return preparedSdkFolder;
     } catch (IOException ex) {
       throw new MojoExecutionException("Detected error during execution", ex);
     }
   }
 
+  protected void evictCachedGoSdks() {
+    final SdkStoreCleaner cleaner = new SdkStoreCleaner(this.storeFolder.toPath(),
+        this.sdkCacheMaxSizeMb * 1024L * 1024L, this.sdkCacheMaxCount,
+        Duration.ofDays(this.sdkCacheMaxAgeDays), SdkStoreCleaner.DEFAULT_IN_USE_GRACE,
+        this::logInfo);
+    final boolean installed = this.goSdkInstalled.getAndSet(false);
+    if (!cleaner.isLimited()) {
+      return;
+    }
+    if (!installed && !cleaner.isAutoPruneDue()) {
+      this.logDebug("GoSDK store eviction skipped, no new GoSDK and the store is pruned recently");
+      return;
+    }
+    final long start = System.currentTimeMillis();
+    try {
+      final SdkStoreCleaner.Result result =
+          cleaner.prune(ResolvedSdkCache.listInStore(this.storeFolder.toPath()));
+      this.logOptional(String.format("GoSDK store eviction (%d ms): %s",
+          System.currentTimeMillis() - start, result));
+    } catch (IOException ex) {
+      this.logWarn("Can't evict cached GoSDKs: " + ex.getMessage());
+    }
+  }
+
+  private SdkIntegrityCheck findSdkIntegrityCheck() throws MojoExecutionException {
+    if (isNullOrEmpty(this.sdkIntegrityCheck)) {
+      return SdkIntegrityCheck.NONE;
+    }
+    return SdkIntegrityCheck.find(this.sdkIntegrityCheck).orElseThrow(
+        () -> new MojoExecutionException(
+            "Unsupported GoSDK integrity check mode: " + this.sdkIntegrityCheck));
+  }
+
+  /**
+   * Check integrity of cached GoSDK folder and repair damaged files. Folder without manifest (for
+   * instance installed by previous plugin version) is adopted, in FAST and DEEP modes its files are
+   * checked against GoSDK archive before if the session is not offline one.
+   */
+  private void checkSdkIntegrity(
+      final Path cacheFolder,
+      final String sdkBaseName,
+      final Path sdkFolder,
+      final SdkIntegrityCheck integrityCheck) throws IOException, MojoFailureException {
+    final Path manifestFile = SdkManifest.findManifestFile(cacheFolder, sdkBaseName);
+    final SdkManifest manifest = SdkManifest.read(manifestFile).orElse(null);
+    if (manifest == null) {
+      if (integrityCheck == SdkIntegrityCheck.NONE) {
+        this.logInfo("Detected GoSDK folder without manifest, writing manifest: " + sdkFolder);
+      } else if (this.session.isOffline()) {
+        this.logWarn("Detected GoSDK folder without manifest, can't check it in offline session: " +
+            sdkFolder);
+      } else {
+        this.logInfo("Detected GoSDK folder without manifest, checking it against GoSDK archive: " +
+            sdkFolder);
+        ResolvedSdkCache.invalidateInStore(cacheFolder, sdkBaseName);
+        this.checkGoSdkByArchive(sdkBaseName, sdkFolder);
+      }
+      SdkManifest.create(sdkFolder, integrityCheck == SdkIntegrityCheck.DEEP).write(manifestFile);
+      return;
+    }
+
+    SdkIntegrityCheck mode = integrityCheck;
+    if (mode == SdkIntegrityCheck.NONE &&
+        !Files.isRegularFile(ResolvedSdkCache.findMarkerFile(cacheFolder, sdkBaseName))) {
+      this.logWarn("Detected not completed GoSDK installation, checking files: " + sdkFolder);
+      mode = SdkIntegrityCheck.FAST;
+    }
+    if (mode == SdkIntegrityCheck.NONE) {
+      return;
+    }
+    if (mode == SdkIntegrityCheck.DEEP && !manifest.hasHashes()) {
+      this.logDebug("Manifest doesn't contain hashes, only sizes and times will be checked");
+    }
+
+    final long start = System.currentTimeMillis();
+    final List<String> damaged =
+        manifest.findDamaged(sdkFolder, mode == SdkIntegrityCheck.DEEP);
+    this.logDebug(String.format("Integrity check (%s) of %d file(s) took %d ms", mode,
+        manifest.size(), System.currentTimeMillis() - start));
+    if (damaged.isEmpty()) {
+      this.logOptional("GoSDK integrity check passed: " + sdkFolder);
+      return;
+    }
+
+    this.logWarn(String.format("Detected %d damaged file(s) in GoSDK folder: %s", damaged.size(),
+        sdkFolder));
+    damaged.forEach(x -> this.logDebug("Damaged file: " + x));
+    if (this.session.isOffline()) {
+      throw new MojoFailureException(
+          "Detected damaged GoSDK files but the session is offline one: " + sdkFolder);
+    }
+    ResolvedSdkCache.invalidateInStore(cacheFolder, sdkBaseName);
+    this.repairGoSdk(sdkBaseName, sdkFolder, damaged);
+    manifest.refresh(sdkFolder, damaged);
+    manifest.write(manifestFile);
+    this.logInfo(String.format("Repaired %d file(s) in GoSDK folder: %s", damaged.size(),
+        sdkFolder));
+  }
+
+  private void checkGoSdkByArchive(final String sdkBaseName, final Path sdkFolder)
+      throws IOException, MojoFailureException {
+    final Path checkFolder = sdkFolder.resolveSibling(".check" + sdkFolder.getFileName());
+    try {
+      this.loadAndUnpackGoSdk(sdkBaseName, checkFolder, null);
+      final Path goFolder = checkFolder.resolve("go");
+      final List<String> replaced = SdkManifest.replaceDifferentFiles(sdkFolder,
+          Files.isDirectory(goFolder) ? goFolder : checkFolder);
+      if (replaced.isEmpty()) {
+        this.logOptional("GoSDK folder matches GoSDK archive: " + sdkFolder);
+      } else {
+        replaced.forEach(x -> this.logDebug("Replaced file: " + x));
+        this.logWarn(String.format("Replaced %d file(s) which differ from GoSDK archive: %s",
+            replaced.size(), sdkFolder));
+      }
+    } finally {
+      if (Files.exists(checkFolder)) {
+        FileUtils.deleteDirectory(checkFolder.toFile());
+      }
+    }
+  }
+
+  private void repairGoSdk(final String sdkBaseName, final Path sdkFolder,
+                           final List<String> damagedFiles)
+      throws IOException, MojoFailureException {
+    final Set<String> files = new HashSet<>(damagedFiles);
+    final Path repairFolder = sdkFolder.resolveSibling(".repair" + sdkFolder.getFileName());
+    try {
+      this.loadAndUnpackGoSdk(sdkBaseName, repairFolder,
+          name -> files.contains(name) || (name.startsWith("go/") && files.contains(name.substring(3))));
+      final Path goFolder = repairFolder.resolve("go");
+      final Path unpackedFolder = Files.isDirectory(goFolder) ? goFolder : repairFolder;
+      for (final String file : damagedFiles) {
+        final Path source = unpackedFolder.resolve(file);
+        if (!Files.isRegularFile(source)) {
+          throw new MojoFailureException("Can't find file in GoSDK archive: " + file);
+        }
+        final Path target = sdkFolder.resolve(file);
+        Files.createDirectories(target.getParent());
+        // remove first to not write into a file shared through hard links
+        Files.deleteIfExists(target);
+        Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      if (Files.exists(repairFolder)) {
+        FileUtils.deleteDirectory(repairFolder.toFile());
+      }
+    }
+  }
+
+  private void materializeInContentAddressedStore(final Path cacheFolder, final Path sdkFolder) {
+    final ContentAddressedStore store =
+        new ContentAddressedStore(cacheFolder.resolve(ContentAddressedStore.FOLDER_NAME));
+    final long start = System.currentTimeMillis();
+    try {
+      final ContentAddressedStore.Result result = store.materialize(sdkFolder);
+      this.logInfo(String.format(
+          "Content addressed store: %d file(s), %d new, %d linked, %d Kb saved",
+          result.getFiles(), result.getStored(), result.getLinked(),
+          result.getSavedBytes() / 1024L));
+      if (!result.isCompleted()) {
+        this.logWarn("Hard links are not supported for store folder, rest of files kept as is: " +
+            store.getRoot());
+      }
+    } catch (IOException ex) {
+      this.logWarn("Can't process files through content addressed store, kept as is: " +
+          ex.getMessage());
+    } finally {
+      this.logDebug("Elapsed time for content addressed store: " +
+          (System.currentTimeMillis() - start) + " ms");
+    }
+  }
+
   private Path findDownloadArchiveFolder() throws IOException {
     final Path result;
     if (isNullOrEmpty(this.downloadArchiveFolder)) {
@@ -422,7 +884,8 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
     return Files.createDirectories(result);
   }
 
-  private void loadAndUnpackGoSdk(final String sdkBaseName, final Path destinationFolder)
+  private void loadAndUnpackGoSdk(final String sdkBaseName, final Path destinationFolder,
+                                  final Predicate<String> entryFilter)
       throws IOException, MojoFailureException {
     this.logInfo("Loading GoSDK for base name: " + sdkBaseName);
     if (Files.isDirectory(destinationFolder)) {
@@ -468,7 +931,7 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
         }
 
         final Set<String> allFileNames =
-            Stream.of("tar.gz", "zip").map(x -> sdkBaseName + '.' + x).collect(toSet());
+            SDK_ARCHIVE_EXTENSIONS.stream().map(x -> sdkBaseName + '.' + x).collect(toSet());
 
         final GoRecord sdkRecord = records.stream()
             .filter(x -> x.getName().equalsIgnoreCase(recordVersion))
@@ -540,11 +1003,32 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
       }
     }
 
+    if (this.pipelinedUnpack && !loadAsArtifactId && !this.keepDownloadedArchive &&
+        !this.resumableDownload && isHttpOrHttps(sdkArchiveUrl)) {
+      this.logInfo("Retrieving and unpacking GoSDK from URL: " + sdkArchiveUrl);
+      this.downloadAndUnpack(sdkArchiveUrl, destinationFolder, expectedChecksum, entryFilter);
+      this.logInfo("Updating file attributes in folder: " + destinationFolder);
+      this.makeExecutableFilesInFolder(destinationFolder);
+      return;
+    }
+
     final Path loadFolder = this.findDownloadArchiveFolder();
 
-    final Path tempArchivePath = loadFolder.resolve(
-        ".tmp_" + Long.toString(System.currentTimeMillis(), 25).toUpperCase(Locale.ENGLISH) + '_' +
-            ensureSafeFileName(fileName));
+    final boolean resumable =
+        this.resumableDownload && !loadAsArtifactId && isHttpOrHttps(sdkArchiveUrl);
+    final Path tempArchivePath;
+    final Path resumeStatePath;
+    if (resumable) {
+      tempArchivePath = loadFolder.resolve(".part_" + ensureSafeFileName(fileName));
+      resumeStatePath =
+          tempArchivePath.resolveSibling(tempArchivePath.getFileName().toString() + ".state");
+    } else {
+      tempArchivePath = loadFolder.resolve(
+          ".tmp_" + Long.toString(System.currentTimeMillis(), 25).toUpperCase(Locale.ENGLISH) +
+              '_' + ensureSafeFileName(fileName));
+      resumeStatePath = null;
+    }
+    boolean keepPartialArchive = false;
     try {
       Path sdkPath;
       if (loadAsArtifactId) {
@@ -554,14 +1038,25 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
         this.logOptional("SDK artifact archive location: " + sdkPath);
       } else {
         this.logInfo("Retrieving GoSDK from URL: " + sdkArchiveUrl);
-        this.downloadFromUrl(sdkArchiveUrl, tempArchivePath, expectedChecksum);
+        try {
+          this.downloadFromUrl(sdkArchiveUrl, tempArchivePath, resumeStatePath, expectedChecksum);
+        } catch (IOException ex) {
+          if (resumeStatePath != null && Files.isRegularFile(tempArchivePath)) {
+            keepPartialArchive = true;
+            this.logWarn("Partially downloaded archive is kept to resume download: " +
+                tempArchivePath);
+          }
+          throw ex;
+        }
         sdkPath = tempArchivePath;
       }
-      this.extractArchiveToDestination(sdkPath, destinationFolder);
+      this.extractArchiveToDestination(sdkPath, destinationFolder, entryFilter);
       this.logInfo("Updating file attributes in folder: " + destinationFolder);
       this.makeExecutableFilesInFolder(destinationFolder);
     } finally {
-      if (!this.keepDownloadedArchive && Files.exists(tempArchivePath)) {
+      if (keepPartialArchive) {
+        this.logDebug("Keeping partial archive and its state file: " + resumeStatePath);
+      } else if (!this.keepDownloadedArchive && Files.exists(tempArchivePath)) {
         this.logInfo("Deleting temporary archive file:" + tempArchivePath);
         if (Files.deleteIfExists(tempArchivePath)) {
           this.logDebug("Deleted successfully");
@@ -574,92 +1069,195 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
           this.logWarn("Downloaded archive not removed for direct request: " + tempArchivePath);
         }
       }
+      if (!keepPartialArchive && resumeStatePath != null) {
+        Files.deleteIfExists(resumeStatePath);
+      }
     }
   }
 
+  private static ChecksumDigester makeArchiveDigester(
+      final Map<GoRecordChecksum, String> checksum) {
+    return new ChecksumDigester(
+        checksum.isEmpty() ? List.of(GoRecordChecksum.MD5, GoRecordChecksum.CRC32C) :
+            checksum.keySet());
+  }
+
+  private ApacheHttpClient5Loader.ProgressConsumer makeDownloadProgressConsumer() {
+    final AtomicInteger lastProgress = new AtomicInteger(-1);
+    return (loaded, size, progress) -> {
+      if (progress >= 0 && lastProgress.get() != progress) {
+        lastProgress.set(progress);
+        if (!this.session.isParallel() && !this.hideLoadIndicator
+            && !this.loadIndicatorDisabled) {
+          final String sizeText = (size / 1024L) + "Mb";
+          final String loadedText = (loaded / 1024L) + "Mb";
+          printCliProgressBar("Loading GoSDK:", ' ' + loadedText + '/' + sizeText,
+              progress, 100, 5);
+          if (progress == 100) {
+            System.out.println();
+          }
+        }
+      }
+    };
+  }
+
+  private void downloadAndUnpack(final String sdkArchiveUrl, final Path destinationFolder,
+                                 final Map<GoRecordChecksum, String> checksum,
+                                 final Predicate<String> entryFilter)
+      throws IOException, MojoFailureException {
+    final ChecksumDigester digester = makeArchiveDigester(checksum);
+    final AtomicInteger counter = new AtomicInteger();
+    this.logInfo("Unpacking archive stream into: " + destinationFolder);
+    final Header[] headers = ApacheHttpClient5Loader.processResource(
+        makeHttpClient(),
+        sdkArchiveUrl,
+        this.makeDownloadProgressConsumer(),
+        SDK_ARCHIVE_MIMES,
+        (h, inputStream) -> {
+          final InputStream digestingStream = digester.wrap(inputStream);
+          try {
+            this.makeArchiveUnpacker(entryFilter).unpackArchive(digestingStream, destinationFolder.toFile(),
+                this.makeUnpackListener(counter));
+          } catch (ArchiveException ex) {
+            throw new IOException("Can't unpack archive for error", ex);
+          }
+          final long tail = IOUtils.consume(digestingStream);
+          this.logDebug("Read " + tail + " byte(s) of archive tail");
+        }
+    );
+    this.logDebug("Headers: " + Arrays.toString(headers));
+    this.logInfo(
+        String.format("Archive successfully downloaded and unpacked, %d byte(s), %d items: %s",
+            digester.getLength(), counter.get(), destinationFolder));
+    this.verifyChecksums(digester, checksum, headers);
+  }
+
   private void downloadFromUrl(final String sdkArchiveUrl, final Path tempArchivePath,
+                               final Path resumeStatePath,
                                final Map<GoRecordChecksum, String> checksum)
       throws IOException, MojoFailureException {
     if (sdkArchiveUrl.toLowerCase(Locale.ROOT).startsWith("http:") ||
         sdkArchiveUrl.toLowerCase(Locale.ROOT).startsWith("https:")) {
-      final AtomicInteger lastProgress = new AtomicInteger(-1);
-      final Header[] headers = ApacheHttpClient5Loader.loadResource("GET",
-          makeHttpClient(),
-          sdkArchiveUrl,
-          (loaded, size, progress) -> {
-            if (progress >= 0 && lastProgress.get() != progress) {
-              lastProgress.set(progress);
-              if (!this.session.isParallel() || this.hideLoadIndicator) {
-                final String sizeText = (size / 1024L) + "Mb";
-                final String loadedText = (loaded / 1024L) + "Mb";
-                printCliProgressBar("Loading GoSDK:", ' ' + loadedText + '/' + sizeText,
-                    progress, 100, 5);
-                if (progress == 100) {
-                  System.out.println();
-                }
+      final ApacheHttpClient5Loader.ProgressConsumer progressConsumer =
+          this.makeDownloadProgressConsumer();
+      final ChecksumDigester digester = makeArchiveDigester(checksum);
+      final Header[] headers;
+      if (resumeStatePath != null) {
+        if (Files.isRegularFile(resumeStatePath)) {
+          this.logInfo("Detected state of previous download, trying to resume: " + tempArchivePath);
+        }
+        headers = ApacheHttpClient5Loader.loadResourceResumable(
+            makeHttpClient(),
+            sdkArchiveUrl,
+            tempArchivePath,
+            resumeStatePath,
+            progressConsumer,
+            x -> 16 * 1024 * 1024,
+            SDK_ARCHIVE_MIMES,
+            digester
+        );
+      } else if (this.downloadSegments > 1) {
+        this.logDebug("Segmented download, max segments " + this.downloadSegments +
+            ", min segment size " + this.downloadSegmentMinSize + " byte(s)");
+        headers = ApacheHttpClient5Loader.loadResourceSegmented(
+            makeHttpClient(),
+            sdkArchiveUrl,
+            tempArchivePath,
+            this.downloadSegments,
+            this.downloadSegmentMinSize,
+            progressConsumer,
+            x -> 16 * 1024 * 1024,
+            SDK_ARCHIVE_MIMES,
+            digester
+        );
+      } else {
+        headers = ApacheHttpClient5Loader.loadResource("GET",
+            makeHttpClient(),
+            sdkArchiveUrl,
+            progressConsumer,
+            h -> {
+              this.logDebug("Opening output stream for archive file:" + tempArchivePath);
+              try {
+                return Files.newOutputStream(tempArchivePath);
+              } catch (IOException ex) {
+                throw new IllegalStateException(
+                    "IOError during open stream for temporary file: " + tempArchivePath, ex);
               }
-            }
-          },
-          h -> {
-            this.logDebug("Opening output stream for archive file:" + tempArchivePath);
-            try {
-              return Files.newOutputStream(tempArchivePath);
-            } catch (IOException ex) {
-              throw new IllegalStateException(
-                  "IOError during open stream for temporary file: " + tempArchivePath, ex);
-            }
-          },
-          x -> 16 * 1024 * 1024,
-          SDK_ARCHIVE_MIMES
-      );
+            },
+            x -> 16 * 1024 * 1024,
+            SDK_ARCHIVE_MIMES,
+            digester
+        );
+      }
       this.logDebug("Headers: " + Arrays.toString(headers));
       this.logInfo("Successfully downloaded archive file: " + tempArchivePath);
 
-      if (checksum.isEmpty()) {
-        final ApacheHttpClient5Loader.XGoogHashHeader xgoogHeader =
-            new ApacheHttpClient5Loader.XGoogHashHeader(headers);
-        if (xgoogHeader.isValid()) {
-          this.logInfo("Detected XGoogHashHeader, validating checksum for downloaded archive");
-          try (final InputStream fileInputStream = Files.newInputStream(tempArchivePath)) {
-            if (xgoogHeader.isDataOk(fileInputStream)) {
-              this.logInfo("Checksum is ok");
-            } else {
-              this.logError("Checksum is wrong");
-              throw new MojoFailureException("Downloaded archive has wrong checksum");
-            }
-          }
-        } else {
-          this.logWarn(
-              "There is no XGoogHashHeader in response and no provided checksum to check the downloaded archive");
-        }
-      } else {
-        this.checkChecksums(tempArchivePath, checksum);
-      }
+      this.verifyDownloadedArchive(tempArchivePath, digester, checksum, headers);
     } else {
       this.logInfo("Copying local file archive: " + sdkArchiveUrl);
       final File archive = sdkArchiveUrl.toLowerCase(Locale.ROOT).startsWith("file:") ?
           new File(URI.create(sdkArchiveUrl)) : new File(sdkArchiveUrl);
       if (archive.isFile()) {
-        final Path filePath = archive.toPath();
-        this.checkChecksums(filePath, checksum);
-        Files.copy(filePath, tempArchivePath);
+        final ChecksumDigester digester = new ChecksumDigester(checksum.keySet());
+        try (final InputStream inputStream = Files.newInputStream(archive.toPath());
+             final OutputStream outputStream = Files.newOutputStream(tempArchivePath)) {
+          digester.transfer(inputStream, outputStream);
+        }
+        this.checkChecksums(digester, checksum);
       } else {
         throw new MojoFailureException("Can't find archive file: " + archive.getAbsolutePath());
       }
     }
   }
 
-  private void checkChecksums(final Path file, final Map<GoRecordChecksum, String> checksum)
-      throws IOException, MojoFailureException {
+  private void verifyDownloadedArchive(
+      final Path archive,
+      final ChecksumDigester digester,
+      final Map<GoRecordChecksum, String> checksum,
+      final Header[] headers) throws IOException, MojoFailureException {
+    final ChecksumDigester calculated;
+    if (digester.getLength() == Files.size(archive)) {
+      calculated = digester;
+    } else {
+      this.logDebug("Checksums were not calculated during download, reading archive: " + archive);
+      calculated = ChecksumDigester.digest(archive, digester.getChecksums());
+    }
+    this.verifyChecksums(calculated, checksum, headers);
+  }
+
+  private void verifyChecksums(
+      final ChecksumDigester calculated,
+      final Map<GoRecordChecksum, String> checksum,
+      final Header[] headers) throws IOException, MojoFailureException {
+    if (checksum.isEmpty()) {
+      final ApacheHttpClient5Loader.XGoogHashHeader xgoogHeader =
+          new ApacheHttpClient5Loader.XGoogHashHeader(headers);
+      if (xgoogHeader.isValid() && xgoogHeader.hasData()) {
+        this.logInfo("Detected XGoogHashHeader, validating checksum for downloaded archive");
+        if (xgoogHeader.isDataOk(calculated)) {
+          this.logInfo("Checksum is ok");
+        } else {
+          this.logError("Checksum is wrong");
+          throw new MojoFailureException("Downloaded archive has wrong checksum");
+        }
+      } else {
+        this.logWarn(
+            "There is no XGoogHashHeader in response and no provided checksum to check the downloaded archive");
+      }
+    } else {
+      this.checkChecksums(calculated, checksum);
+    }
+  }
+
+  private void checkChecksums(final ChecksumDigester digester,
+                              final Map<GoRecordChecksum, String> checksum)
+      throws MojoFailureException {
     if (checksum.isEmpty()) {
       this.logWarn("There is not provided checksum info");
     } else {
       for (final Map.Entry<GoRecordChecksum, String> c : checksum.entrySet()) {
         this.logInfo("Validating checksum of downloaded archive: " + c.getKey().name());
-        final String hex;
-        try (final InputStream inputStream = Files.newInputStream(file)) {
-          hex = c.getKey().makeHex(inputStream);
-        }
+        final String hex = digester.getHex(c.getKey());
         if (!c.getValue().equalsIgnoreCase(hex)) {
           this.logError(c.getKey() + " : expected " + c.getValue() + " but detected " + hex);
           throw new MojoFailureException("Wrong " + hex + " signature, expected " + c.getValue());
@@ -668,31 +1266,15 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
     }
   }
 
-  private void extractArchiveToDestination(Path tempArchivePath, Path destinationFolder)
+  private void extractArchiveToDestination(Path tempArchivePath, Path destinationFolder,
+                                           Predicate<String> entryFilter)
       throws IOException {
     try {
       this.logInfo("Unpacking archive into: " + destinationFolder);
       final AtomicInteger counter = new AtomicInteger();
-      ArchiveUnpacker.INSTANCE.unpackArchive(tempArchivePath.toFile(), destinationFolder.toFile(),
-          new ArchiveUnpacker.UnpackListener() {
-            @Override
-            public void onArchiveType(ArchiveUnpacker source,
-                                      ArchiveUnpacker.ArchiveType archiveType) {
-              logDebug("Archive type: " + archiveType);
-            }
-
-            @Override
-            public void onArchiveEntry(ArchiveUnpacker source, ArchiveEntry archiveEntry) {
-              logTrace("Archive entry: " + archiveEntry.getName() + " (" +
-                  (archiveEntry.isDirectory() ? "" : archiveEntry.getSize()) + ')');
-              counter.incrementAndGet();
-            }
-
-            @Override
-            public void onCompleted(ArchiveUnpacker source) {
-              logDebug("Decompression has been completed: " + counter.get() + " item(s)");
-            }
-          });
+      this.makeArchiveUnpacker(entryFilter)
+          .unpackArchive(tempArchivePath.toFile(), destinationFolder.toFile(),
+              this.makeUnpackListener(counter));
       this.logInfo(
           String.format("Archive successfully unpacked, detected %d items: %s", counter.get(),
               destinationFolder));
@@ -701,6 +1283,46 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
     }
   }
 
+  private ArchiveUnpacker makeArchiveUnpacker(final Predicate<String> entryFilter)
+      throws IOException {
+    final GzipDecompressor decompressor;
+    try {
+      decompressor = isNullOrEmpty(this.gzipDecompressor) ? StandardGzipDecompressor.DEFAULT :
+          GzipDecompressor.find(this.gzipDecompressor);
+    } catch (IllegalArgumentException ex) {
+      throw new IOException("Can't find GZIP decompressor: " + this.gzipDecompressor, ex);
+    }
+    final ArchiveUnpacker result = ArchiveUnpacker.INSTANCE
+        .withWriterThreads(this.unpackThreads)
+        .withGzipDecompressor(decompressor)
+        .withEntryFilter(entryFilter);
+    this.logDebug("Archive unpack writer threads: " + result.getWriterThreads() +
+        ", GZIP decompressor: " + decompressor);
+    return result;
+  }
+
+  private ArchiveUnpacker.UnpackListener makeUnpackListener(final AtomicInteger counter) {
+    return new ArchiveUnpacker.UnpackListener() {
+      @Override
+      public void onArchiveType(ArchiveUnpacker source,
+                                ArchiveUnpacker.ArchiveType archiveType) {
+        logDebug("Archive type: " + archiveType);
+      }
+
+      @Override
+      public void onArchiveEntry(ArchiveUnpacker source, ArchiveEntry archiveEntry) {
+        logTrace("Archive entry: " + archiveEntry.getName() + " (" +
+            (archiveEntry.isDirectory() ? "" : archiveEntry.getSize()) + ')');
+        counter.incrementAndGet();
+      }
+
+      @Override
+      public void onCompleted(ArchiveUnpacker source) {
+        logDebug("Decompression has been completed: " + counter.get() + " item(s)");
+      }
+    };
+  }
+
   private Path downloadFromArtifactId(String artifactId) throws IOException {
     return this.resolveBinaryArtifact(this.createDependencyArtifact(artifactId));
   }
@@ -813,7 +1435,7 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
     }
   }
 
-  private String findOs() {
+  protected String findOs() {
     if (isNullOrEmpty(this.os)) {
       if (SystemUtils.IS_OS_MAC || SystemUtils.IS_OS_MAC_OSX) {
         return "darwin";
@@ -837,17 +1459,21 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
     }
   }
 
-  private HttpClient makeHttpClient() {
+  private synchronized HttpClient makeHttpClient() {
+    if (this.httpClient != null) {
+      return this.httpClient;
+    }
     final ProxySettings proxySettings = this.findProxySettings();
     this.logDebug("Proxy settings: " + proxySettings);
     this.logDebug("Disable SSL check: " + this.disableSslCheck);
     this.logDebug("Connection timeout: " + this.connectionTimeout);
 
-    return ApacheHttpClient5Loader.INSTANCE.createHttpClient(
+    this.httpClient = ApacheHttpClient5Loader.INSTANCE.createHttpClient(
         this.findProxySettings(),
         this.disableSslCheck,
         Duration.ofMillis(this.connectionTimeout)
     );
+    return this.httpClient;
   }
 
   private void makeExecutableFilesInFolder(final Path folder) throws IOException {
@@ -880,56 +1506,8 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
     }
   }
 
-  private String extractSdkFileName(
-      final Document document,
-      final String sdkBaseName,
-      final List<String> allowedExtensions) throws IOException {
-
-    this.logDebug(String.format(
-        "Extracting GoSDK file name with base %s from document for allowed extensions %s",
-        sdkBaseName,
-        allowedExtensions)
-    );
-
-    final Set<String> variantsWithExtensions =
-        allowedExtensions.stream().map(x -> sdkBaseName + '.' + x).collect(
-            toSet());
-
-    final List<String> listOfFoundSdk = new ArrayList<>();
-
-    final Element root = document.getDocumentElement();
-    if ("ListBucketResult".equals(root.getTagName())) {
-      final NodeList list = root.getElementsByTagName("Contents");
-      for (int i = 0; i < list.getLength(); i++) {
-        final Element element = (Element) list.item(i);
-        final NodeList keys = element.getElementsByTagName("Key");
-        if (keys.getLength() > 0) {
-          final String text = keys.item(0).getTextContent();
-          if (variantsWithExtensions.contains(text)) {
-            return text;
-          } else {
-            listOfFoundSdk.add(text);
-          }
-        }
-      }
-
-      this.logWarn(String.format("Can't find any expected distributive %s among provided files:%s",
-          variantsWithExtensions, listOfFoundSdk.stream().collect(
-              joining("\n", "\n", "\n"))));
-
-      if (this.sdkArchiveFileAutoExtension) {
-        final String supposedSdkName =
-            sdkBaseName + '.' + findArchiveExtensionForOs();
-        this.logWarn("Force supposed GoSDK file name: " + supposedSdkName);
-        return supposedSdkName;
-      }
-      throw new IOException("Can't find SDK : " + sdkBaseName);
-    } else {
-      throw new IOException("It is not a ListBucket file [" + root.getTagName() + ']');
-    }
-  }
-
-  private String loadTextFromSdkSiteLink(final String link, final String keyPrefix)
+  private String loadTextFromSdkSiteLink(final String link, final String keyPrefix,
+                                         final Consumer<Cancellable> requestConsumer)
       throws IOException {
     final String trimmed = link.trim();
     if (isHttpOrHttps(trimmed)) {
@@ -937,7 +1515,7 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
           trimmed + (keyPrefix == null ? "" : "?prefix=" + keyPrefix);
       this.logInfo("Loading GoSDK link with URI: " + sdkListUri);
       return ApacheHttpClient5Loader.loadResourceAsString("GET", this.makeHttpClient(), sdkListUri,
-          List.of("application/xml", "application/json", "text/plain", "text/html"));
+          SDK_LIST_MIMES, requestConsumer);
     } else {
       this.logWarn("Loading GoSDK link list as a local file: " + trimmed);
       final File file = new File(trimmed);
@@ -953,17 +1531,16 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
     final List<String> targetSites = GoSdkSite.find(sdkSite).map(GoSdkSite::getLinks).orElse(null);
     List<GoRecord> result = null;
     if (targetSites == null) {
-      final String text = this.loadTextFromSdkSiteLink(sdkSite, keyPrefix);
-      result = GoRecordExtractor.getInstance().findRecords(sdkSite, text).orElse(null);
+      result = this.loadRecordsFromSdkSiteLink(sdkSite, keyPrefix, null);
+    } else if (this.sdkSiteRace && targetSites.size() > 1) {
+      this.logInfo("Using race mode: " + sdkSite + "  " + targetSites);
+      result = this.raceSdkSiteLinks(targetSites, keyPrefix);
     } else {
       this.logInfo("Using search mode: " + sdkSite + "  " + targetSites);
       for (final String link : targetSites) {
         try {
           this.logDebug("Attempt to load Go SDK list from: " + link);
-          final String text = this.loadTextFromSdkSiteLink(link, keyPrefix);
-          this.logDebug("Downloaded text: " + text);
-          result =
-              GoRecordExtractor.getInstance().findRecords(link, text).orElse(null);
+          result = this.loadRecordsFromSdkSiteLink(link, keyPrefix, null);
           if (result == null || result.isEmpty()) {
             this.logWarn("Can't extract any GoSDK item from list downloaded from " + link);
           } else {
@@ -977,35 +1554,300 @@ public abstract class AbstractGolangSdkAwareMojo extends AbstractCommonMojo {
     return result;
   }
 
-  private void unlockSdkFolder(final File lockFile) throws IOException {
-    long nextNotificationTime =
-        System.currentTimeMillis() + DELAY_LOCK_FILE_NOTIFICATION.toMillis();
-    while (lockFile.exists() && !lockFile.delete()) {
-      if (System.currentTimeMillis() >= nextNotificationTime) {
-        this.logWarn("Still can't unlock folder and remove file: " + lockFile);
-        nextNotificationTime = System.currentTimeMillis() + DELAY_LOCK_FILE_NOTIFICATION.toMillis();
+  private List<GoRecord> raceSdkSiteLinks(final List<String> links, final String keyPrefix)
+      throws IOException {
+    final Queue<Cancellable> requests = new ConcurrentLinkedQueue<>();
+    final AtomicInteger threadCounter = new AtomicInteger();
+    final ExecutorService executor = Executors.newFixedThreadPool(links.size(), r -> {
+      final Thread thread = new Thread(r, "gosdk-site-race-" + threadCounter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    final long start = System.currentTimeMillis();
+    try {
+      final CompletionService<List<GoRecord>> completionService =
+          new ExecutorCompletionService<>(executor);
+      final Map<Future<List<GoRecord>>, String> futures = new HashMap<>();
+      for (final String link : links) {
+        futures.put(completionService.submit(
+            () -> this.loadRecordsFromSdkSiteLink(link, keyPrefix, requests::add)), link);
+      }
+      for (int i = 0; i < links.size(); i++) {
+        final Future<List<GoRecord>> future = completionService.take();
+        final String link = futures.get(future);
+        try {
+          final List<GoRecord> records = future.get();
+          if (records == null || records.isEmpty()) {
+            this.logWarn("Can't extract any GoSDK item from list downloaded from " + link);
+          } else {
+            this.logInfo(String.format("GoSDK list loaded from %s in %d ms", link,
+                System.currentTimeMillis() - start));
+            return records;
+          }
+        } catch (ExecutionException ex) {
+          this.logError("Can't load GoSDK from " + link + " : " + ex.getCause().getMessage());
+        }
+      }
+      return null;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Load of GoSDK list has been interrupted");
+    } finally {
+      requests.forEach(Cancellable::cancel);
+      executor.shutdownNow();
+    }
+  }
+
+  private List<GoRecord> loadRecordsFromSdkSiteLink(final String link, final String keyPrefix,
+                                                    final Consumer<Cancellable> requestConsumer)
+      throws IOException {
+    final String trimmed = link.trim();
+    final boolean streamed = isHttpOrHttps(trimmed) && this.isStreamedSdkList(trimmed);
+    if (!this.sdkListCache || !isHttpOrHttps(trimmed)) {
+      if (streamed) {
+        return this.streamGoogleApisSdkList(trimmed, keyPrefix, requestConsumer);
+      }
+      final String text = this.loadTextFromSdkSiteLink(trimmed, keyPrefix, requestConsumer);
+      this.logDebug("Downloaded text: " + text);
+      return this.parseSdkList(trimmed, null, text, keyPrefix);
+    }
+
+    // only Google Storage listing is filtered by prefix, other sites return whole list which is
+    // cached once for all GoSDKs
+    final String indexPrefix = isPrefixFilteredSdkList(trimmed) ? keyPrefix : null;
+    final SdkIndexCache indexCache = new SdkIndexCache(this.storeFolder.toPath());
+    final SdkIndexCache.Entry cached = indexCache.find(trimmed, indexPrefix).orElse(null);
+    if (cached != null && cached.isFresh(Duration.ofMillis(this.sdkListCacheTtlMs))) {
+      if (indexPrefix != null || containsSdkArchive(cached.getRecords(), keyPrefix)) {
+        this.logInfo("Using cached GoSDK list for " + trimmed);
+        return cached.getRecords();
+      }
+      this.logDebug("Cached GoSDK list doesn't contain GoSDK archive, revalidating it");
+    }
+    if (this.session.isOffline()) {
+      if (cached == null) {
+        throw new IOException("There is no cached GoSDK list and the session is offline one");
+      }
+      this.logWarn("Using stale cached GoSDK list because the session is offline one");
+      return cached.getRecords();
+    }
+
+    if (streamed) {
+      final List<GoRecord> result;
+      try {
+        result = this.streamGoogleApisSdkList(trimmed, keyPrefix, requestConsumer);
+      } catch (IOException ex) {
+        if (cached == null) {
+          throw ex;
+        }
+        this.logWarn("Using stale cached GoSDK list for error: " + ex.getMessage());
+        return cached.getRecords();
+      }
+      if (!result.isEmpty()) {
+        // paged listing has no validators, so it is fully reloaded after TTL; the listing is
+        // filtered by prefix so the cached records serve only the GoSDK of the prefix
+        this.writeSdkIndex(indexCache, new SdkIndexCache.Entry(trimmed, indexPrefix, null, null,
+            System.currentTimeMillis(), result));
+      }
+      return result;
+    }
+
+    final String sdkListUri = trimmed + (indexPrefix == null ? "" : "?prefix=" + indexPrefix);
+    final ApacheHttpClient5Loader.ConditionalText loaded;
+    try {
+      this.logInfo("Loading GoSDK link with URI: " + sdkListUri);
+      loaded = ApacheHttpClient5Loader.loadResourceAsString("GET", this.makeHttpClient(),
+          sdkListUri, SDK_LIST_MIMES,
+          cached == null ? null : cached.getEtag(),
+          cached == null ? null : cached.getLastModified(), requestConsumer);
+    } catch (IOException ex) {
+      if (cached == null) {
+        throw ex;
+      }
+      this.logWarn("Using stale cached GoSDK list for error: " + ex.getMessage());
+      return cached.getRecords();
+    }
+
+    final long now = System.currentTimeMillis();
+    if (loaded.isNotModified() && cached != null) {
+      this.logInfo("Cached GoSDK list is not modified on the site");
+      this.writeSdkIndex(indexCache,
+          cached.revalidated(loaded.getEtag(), loaded.getLastModified(), now));
+      return cached.getRecords();
+    }
+    this.logDebug("Downloaded text: " + loaded.getText());
+    // whole list is parsed to be cached, targeted lookup result must not be saved as the list
+    final List<GoRecord> result =
+        this.parseWholeSdkList(trimmed, loaded.getContentType(), loaded.getText());
+    if (result != null && !result.isEmpty()) {
+      this.writeSdkIndex(indexCache, new SdkIndexCache.Entry(trimmed, indexPrefix,
+          loaded.getEtag(), loaded.getLastModified(), now, result));
+    }
+    return result;
+  }
+
+  private static boolean isPrefixFilteredSdkList(final String link) {
+    return GoSdkSite.GOOGLE_APIS.getLinks().stream().anyMatch(link::startsWith);
+  }
+
+  private static boolean containsSdkArchive(final List<GoRecord> records, final String keyPrefix) {
+    final String sdkBaseName = decodeKeyPrefix(keyPrefix);
+    if (sdkBaseName == null) {
+      return true;
+    }
+    final Set<String> archiveNames =
+        SDK_ARCHIVE_EXTENSIONS.stream().map(x -> sdkBaseName + '.' + x).collect(toSet());
+    return records.stream().flatMap(x -> x.getFiles().stream())
+        .anyMatch(x -> archiveNames.contains(x.getFileName()));
+  }
+
+  private List<SdkListFormat> findSdkListFormats() throws IOException {
+    if (isNullOrEmpty(this.sdkListFormats)) {
+      return SdkListFormat.DEFAULT_ORDER;
+    }
+    final List<SdkListFormat> formats = new ArrayList<>();
+    for (final String name : this.sdkListFormats.split(",")) {
+      formats.add(SdkListFormat.find(name)
+          .orElseThrow(() -> new IOException("Unsupported GoSDK list format: " + name)));
+    }
+    return formats;
+  }
+
+  private boolean isStreamedSdkList(final String link) throws IOException {
+    return isPrefixFilteredSdkList(link)
+        && this.findSdkListFormats().contains(SdkListFormat.XML);
+  }
+
+  /**
+   * Stream Google Storage listing page by page without building whole document in memory. Pages
+   * are requested through marker while the listing is truncated, streaming is stopped as soon as
+   * GoSDK archive for the prefix is met.
+   *
+   * @param link            link to the bucket, must not be null
+   * @param keyPrefix       URL encoded prefix of keys, can be null
+   * @param requestConsumer consumer of started requests, can be null
+   * @return list of found records, can be empty
+   * @throws IOException if any transport or parsing error
+   */
+  private List<GoRecord> streamGoogleApisSdkList(final String link, final String keyPrefix,
+                                                 final Consumer<Cancellable> requestConsumer)
+      throws IOException {
+    final String sdkBaseName = decodeKeyPrefix(keyPrefix);
+    final Set<String> archiveNames = sdkBaseName == null ? Set.of() :
+        SDK_ARCHIVE_EXTENSIONS.stream().map(x -> sdkBaseName + '.' + x).collect(toSet());
+    final Map<String, List<GoRecord.GoFile>> recordMap = new HashMap<>();
+    final long start = System.currentTimeMillis();
+    int pages = 0;
+    int entries = 0;
+    String marker = null;
+    while (true) {
+      final String pageUri = link + '?' + Stream.of(
+              keyPrefix == null ? null : "prefix=" + keyPrefix,
+              marker == null ? null : "marker=" + URLEncoder.encode(marker, StandardCharsets.UTF_8))
+          .filter(Objects::nonNull)
+          .collect(joining("&"));
+      this.logInfo("Streaming GoSDK list page: " + pageUri);
+
+      final AtomicReference<Cancellable> request = new AtomicReference<>();
+      final AtomicReference<ListBucketStreamParser.Page> page = new AtomicReference<>();
+      ApacheHttpClient5Loader.processResource(this.makeHttpClient(), pageUri,
+          (downloaded, total, progress) -> {
+          }, List.of("application/xml"), x -> {
+            request.set(x);
+            if (requestConsumer != null) {
+              requestConsumer.accept(x);
+            }
+          }, (headers, stream) -> {
+            page.set(GoRecordExtractor.collectGoogleApisRecords(link,
+                new InputStreamReader(stream, StandardCharsets.UTF_8), recordMap,
+                archiveNames::contains));
+            if (page.get().isStopped()) {
+              // drop connection instead of reading rest of the page
+              request.get().cancel();
+            }
+          });
+      pages++;
+      entries += page.get().getCount();
+
+      final String nextMarker = page.get().getNextMarker();
+      if (page.get().isStopped() || nextMarker == null || nextMarker.equals(marker)) {
+        break;
       }
-      this.sleep(LOCK_FILE_SLEEP_MS);
+      if (pages >= MAX_SDK_LIST_PAGES) {
+        this.logWarn("Reached max number of GoSDK list pages: " + MAX_SDK_LIST_PAGES);
+        break;
+      }
+      marker = nextMarker;
     }
+    this.logDebug(String.format("GoSDK list streamed in %d ms: %d page(s), %d entries",
+        System.currentTimeMillis() - start, pages, entries));
+    return GoRecordExtractor.toSortedRecords(recordMap);
+  }
+
+  private static String decodeKeyPrefix(final String keyPrefix) {
+    return keyPrefix == null ? null : URLDecoder.decode(keyPrefix, StandardCharsets.UTF_8);
   }
 
-  private File lockSdkFolder(final File sdkCacheFolder, final String baseSdkName)
+  private List<GoRecord> parseSdkList(final String link, final String contentType,
+                                      final String text, final String keyPrefix)
       throws IOException {
-    final File lockFile = new File(sdkCacheFolder, ".lock." + baseSdkName);
-    lockFile.deleteOnExit();
-    if (!lockFile.createNewFile()) {
-      long nextNotificationTime =
-          System.currentTimeMillis() + DELAY_LOCK_FILE_NOTIFICATION.toMillis();
-      while (lockFile.exists()) {
-        if (System.currentTimeMillis() >= nextNotificationTime) {
-          this.logWarn("Waiting for lock file: " + lockFile);
-          nextNotificationTime =
-              System.currentTimeMillis() + DELAY_LOCK_FILE_NOTIFICATION.toMillis();
+    if (text == null) {
+      return null;
+    }
+    final List<SdkListFormat> formats = this.findSdkListFormats();
+    this.logDebug("Detected GoSDK list format: " +
+        GoRecordExtractor.sniffFormat(contentType, text).map(Enum::name).orElse("UNKNOWN"));
+    final long start = System.currentTimeMillis();
+    try {
+      final String sdkBaseName = decodeKeyPrefix(keyPrefix);
+      final String version = sdkBaseName == null ? null :
+          GoRecordExtractor.extractSdkVersion(sdkBaseName).orElse(null);
+      if (version != null) {
+        final Optional<GoRecord.GoFile> sdkFile = GoRecordExtractor.getInstance()
+            .findSdkFile(link, contentType, text, formats, sdkBaseName, SDK_ARCHIVE_EXTENSIONS);
+        if (sdkFile.isPresent()) {
+          this.logDebug("GoSDK archive found in list: " + sdkFile.get().getFileName());
+          return List.of(new GoRecord(version, List.of(sdkFile.get())));
         }
-        this.sleep(LOCK_FILE_SLEEP_MS);
+        // parse whole list to report found records and to allow auto extension
+        this.logDebug("GoSDK archive is not found in list, parsing whole list");
       }
+      return GoRecordExtractor.getInstance().findRecords(link, contentType, text, formats)
+          .orElse(null);
+    } finally {
+      this.logDebug("GoSDK list parsed in " + (System.currentTimeMillis() - start) + " ms");
+    }
+  }
+
+  private List<GoRecord> parseWholeSdkList(final String link, final String contentType,
+                                           final String text) throws IOException {
+    if (text == null) {
+      return null;
+    }
+    final long start = System.currentTimeMillis();
+    try {
+      return GoRecordExtractor.getInstance()
+          .findRecords(link, contentType, text, this.findSdkListFormats())
+          .orElse(null);
+    } finally {
+      this.logDebug("Whole GoSDK list parsed in " + (System.currentTimeMillis() - start) + " ms");
+    }
+  }
+
+  private void writeSdkIndex(final SdkIndexCache indexCache, final SdkIndexCache.Entry entry) {
+    try {
+      indexCache.write(entry);
+    } catch (IOException ex) {
+      this.logWarn("Can't write cached GoSDK list: " + ex.getMessage());
     }
-    return lockFile;
+  }
+
+  private SdkStoreLock lockSdkFolder(final Path sdkCacheFolder, final String baseSdkName)
+      throws IOException {
+    final SdkStoreLock lock = SdkStoreLock.acquire(sdkCacheFolder, baseSdkName,
+        DELAY_LOCK_FILE_NOTIFICATION, this::logWarn);
+    this.logDebug("Locked GoSDK folder: " + lock.getLockFile());
+    return lock;
   }
 
   private ProxySettings findProxySettings() {
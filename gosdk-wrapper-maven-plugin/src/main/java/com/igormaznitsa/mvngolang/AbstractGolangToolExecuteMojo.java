@@ -4,12 +4,13 @@ import static java.lang.Long.toHexString;
 import static java.lang.System.lineSeparator;
 import static java.util.Objects.requireNonNullElse;
 
-import java.io.BufferedReader;
+import com.igormaznitsa.mvngolang.utils.LogFileSink;
+import com.igormaznitsa.mvngolang.utils.ProcessIoExecutor;
+import com.igormaznitsa.mvngolang.utils.ProcessOutputPump;
+import com.igormaznitsa.mvngolang.utils.ProcessRedirects;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -17,10 +18,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.function.BiConsumer;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -30,6 +32,8 @@ import org.apache.maven.plugins.annotations.Parameter;
 
 public abstract class AbstractGolangToolExecuteMojo extends AbstractGolangSdkAwareMojo {
 
+  private static final long DEFAULT_PROCESS_OUTPUT_DRAIN_TIMEOUT_MS = 5000L;
+
   /**
    * Working directory. This directory will be used as the working directory for the executed process.
    *
@@ -42,10 +46,24 @@ public abstract class AbstractGolangToolExecuteMojo extends AbstractGolangSdkAwa
    * Delay in milliseconds after process exit detection to collect internal buffers before processing threads interruptions.
    *
    * @since 1.0.5
+   * @deprecated not used since 1.1.3, process output is read until end of stream, see processOutputDrainTimeoutMs
    */
+  @Deprecated
   @Parameter(name = "processExitLingerMs", defaultValue = "100")
   private long processExitLingerMs;
 
+  /**
+   * Max time in milliseconds to wait for end of process output after process exit. If the output is
+   * not closed in time, for instance it is inherited by a still working child process, then it is
+   * closed forcibly. If 0 or negative, no timeout is applied and <b>the build waits for end of output without limit</b>, so
+   * a child process keeping the output open hangs the build; after the process is terminated by processTimeout the default 5000 ms
+   * timeout is used anyway.
+   *
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.process.drain.timeout", name = "processOutputDrainTimeoutMs", defaultValue = "5000")
+  private long processOutputDrainTimeoutMs = DEFAULT_PROCESS_OUTPUT_DRAIN_TIMEOUT_MS;
+
   /**
    * Try to make the found command file executable.
    *
@@ -144,6 +162,15 @@ public abstract class AbstractGolangToolExecuteMojo extends AbstractGolangSdkAwa
   @Parameter(name = "hideProcessOutput", defaultValue = "false")
   private boolean hideProcessOutput;
 
+  /**
+   * If process output is hidden then redirect it by OS directly into log files (or discard it if
+   * there is no log file) without reading it in JVM.
+   *
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.direct.output.redirect", name = "directOutputRedirect", defaultValue = "true")
+  private boolean directOutputRedirect = true;
+
   protected void ensureParentFolderExists(@Nonnull final File file) throws MojoExecutionException {
     final File parent = file.getParentFile();
     if (parent == null) {
@@ -253,8 +280,6 @@ public abstract class AbstractGolangToolExecuteMojo extends AbstractGolangSdkAwa
     processBuilder.directory(workDirectory);
     this.logOptional("Work directory: " + workDir);
 
-    processBuilder.redirectErrorStream(true);
-
     final File targetOutputFile;
     final File targetErrorFile;
 
@@ -274,60 +299,69 @@ public abstract class AbstractGolangToolExecuteMojo extends AbstractGolangSdkAwa
       this.logInfo("Redirecting process standard output to: " + targetOutputFile);
     }
 
+    final boolean sameLogFile;
+    try {
+      sameLogFile = targetOutputFile != null && targetErrorFile != null
+          && targetErrorFile.getCanonicalFile().equals(targetOutputFile.getCanonicalFile());
+    } catch (IOException ex) {
+      throw new MojoExecutionException("Unable to resolve process log file: " + ex.getMessage(), ex);
+    }
+
+    final boolean directRedirect = this.hideProcessOutput && this.directOutputRedirect;
+    ProcessRedirects.configure(processBuilder, targetOutputFile, targetErrorFile, sameLogFile,
+        directRedirect);
+    if (directRedirect) {
+      this.logDebug("Process output is redirected directly: stdout="
+          + processBuilder.redirectOutput() + ", stderr="
+          + (processBuilder.redirectErrorStream() ? "stdout" : processBuilder.redirectError()));
+    }
+
     final String localId =
         requireNonNullElse(this.execution.getExecutionId(), "undefined") + '-' +
             toHexString(System.nanoTime()).toUpperCase(Locale.ENGLISH);
 
-    final Thread threadStdErr;
-    final Thread threadStdOut;
+    final ProcessOutputPump stdErrPump;
+    final ProcessOutputPump stdOutPump;
+    final Future<?> pumpStdErr;
+    final Future<?> pumpStdOut;
     final Process process;
 
-    final Lock stdErrLock = new ReentrantLock(true);
-    final Lock stdOutLock = new ReentrantLock(true);
+    final LogFileSink outputSink;
+    final LogFileSink errorSink;
+    try {
+      outputSink = targetOutputFile == null || directRedirect ? null :
+          this.makeLogFileSink(targetOutputFile);
+      if (targetErrorFile == null || directRedirect) {
+        errorSink = null;
+      } else if (sameLogFile) {
+        errorSink = outputSink;
+      } else {
+        errorSink = this.makeLogFileSink(targetErrorFile);
+      }
+    } catch (IOException ex) {
+      throw new MojoExecutionException("Unable to open process log file: " + ex.getMessage(), ex);
+    }
+
     try {
       this.logInfo("Starting command");
       process = processBuilder.start();
-      threadStdErr =
-          this.prepareCatchStream("thread-process-stderr-" + localId, process.getErrorStream(),
-              (line, eol) -> {
-                if (!this.hideProcessOutput) {
-                  this.logWarn(">stderr: " + line);
-                }
-                if (targetErrorFile != null) {
-                  stdErrLock.lock();
-                  try (FileOutputStream outputFile = new FileOutputStream(targetErrorFile, true)) {
-                    outputFile.write(
-                        (line + (eol ? lineSeparator() : "")).getBytes(Charset.defaultCharset()));
-                    outputFile.flush();
-                  } catch (IOException ex) {
-                    this.logError("Unable to append record to log stderr file.: " + ex);
-                  } finally {
-                    stdErrLock.unlock();
-                  }
-                }
-              });
-      threadStdOut =
-          this.prepareCatchStream("thread-process-stdout-" + localId, process.getInputStream(),
-              (line, eol) -> {
-                if (!this.hideProcessOutput) {
-                  this.logInfo(">stdout: " + line);
-                }
-                if (targetOutputFile != null) {
-                  stdOutLock.lock();
-                  try (FileOutputStream outputFile = new FileOutputStream(targetOutputFile, true)) {
-                    outputFile.write(
-                        (line + (eol ? lineSeparator() : "")).getBytes(Charset.defaultCharset()));
-                    outputFile.flush();
-                  } catch (IOException ex) {
-                    this.logError("Unable to append record to log stdout file: " + ex);
-                  } finally {
-                    stdOutLock.unlock();
-                  }
-                }
-              });
-      threadStdErr.start();
-      threadStdOut.start();
-      Thread.yield();
+      if (directRedirect) {
+        stdErrPump = null;
+        stdOutPump = null;
+        pumpStdErr = null;
+        pumpStdOut = null;
+      } else {
+        this.logDebug("Process output is read by "
+            + (ProcessIoExecutor.isVirtual() ? "virtual threads" : "shared thread pool"));
+        final String stdErrId = "thread-process-stderr-" + localId;
+        stdErrPump = this.prepareCatchStream(stdErrId, process.getErrorStream(), errorSink,
+            this.hideProcessOutput ? null : line -> this.logWarn(">stderr: " + line));
+        pumpStdErr = ProcessIoExecutor.getExecutor().submit(this.makeNamedTask(stdErrId, stdErrPump));
+        final String stdOutId = "thread-process-stdout-" + localId;
+        stdOutPump = this.prepareCatchStream(stdOutId, process.getInputStream(), outputSink,
+            this.hideProcessOutput ? null : line -> this.logInfo(">stdout: " + line));
+        pumpStdOut = ProcessIoExecutor.getExecutor().submit(this.makeNamedTask(stdOutId, stdOutPump));
+      }
 
       Long pid = null;
       try {
@@ -350,6 +384,7 @@ public abstract class AbstractGolangToolExecuteMojo extends AbstractGolangSdkAwa
           )
       );
     } catch (Exception ex) {
+      this.closeLogFileSinks(outputSink, errorSink);
       throw new MojoFailureException("Unable to start process due to exception.", ex);
     }
 
@@ -358,6 +393,8 @@ public abstract class AbstractGolangToolExecuteMojo extends AbstractGolangSdkAwa
     }
 
     final int exitCode;
+    boolean destroyed = false;
+    boolean interrupted = false;
     try {
       if (this.processTimeout <= 0L) {
         this.logDebug("Waiting process, localId=" + localId);
@@ -370,80 +407,134 @@ public abstract class AbstractGolangToolExecuteMojo extends AbstractGolangSdkAwa
           this.logDebug("Exit code: " + exitCode);
         } else {
           this.logWarn("Terminating the process due to timeout.");
+          destroyed = true;
           process.destroy();
           throw new MojoFailureException("Process timeout detected.");
         }
       }
     } catch (InterruptedException ex) {
-      this.logWarn("Process interrupted");
+      this.logWarn("Process interrupted, terminating it");
+      interrupted = true;
+      process.destroy();
       Thread.currentThread().interrupt();
       return;
     } finally {
-      this.sleep(this.processExitLingerMs);
-      stdOutLock.lock();
-      try {
-        threadStdOut.interrupt();
-      } finally {
-        stdOutLock.unlock();
+      if (pumpStdOut != null) {
+        final long drainStart = System.nanoTime();
+        if (interrupted) {
+          closeProcessOutput(process, pumpStdOut, pumpStdErr);
+        } else {
+          // killed process can leave output opened by its children
+          final long drainTimeoutMs = destroyed && this.processOutputDrainTimeoutMs <= 0L
+              ? DEFAULT_PROCESS_OUTPUT_DRAIN_TIMEOUT_MS : this.processOutputDrainTimeoutMs;
+          this.logDebug("Waiting for end of process output");
+          if (!this.awaitPumps(drainTimeoutMs, pumpStdOut, pumpStdErr)) {
+            if (!Thread.currentThread().isInterrupted()) {
+              this.logWarn("Process output is not closed in " + drainTimeoutMs
+                  + " ms after process exit, closing it");
+            }
+            closeProcessOutput(process, pumpStdOut, pumpStdErr);
+          }
+        }
+        this.logOptional(String.format(
+            "Process output drained in %d ms: stdout %d bytes, stderr %d bytes",
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - drainStart),
+            stdOutPump.getPumpedBytes(), stdErrPump.getPumpedBytes()));
       }
-      stdErrLock.lock();
-      try {
-        threadStdErr.interrupt();
-      } finally {
-        stdErrLock.unlock();
+      this.closeLogFileSinks(outputSink, errorSink);
+    }
+
+    if (exitCode != this.expectedExitCode) {
+      throw new MojoFailureException("Process exit code: " + exitCode);
+    }
+  }
+
+  private LogFileSink makeLogFileSink(final File file) throws IOException {
+    return new LogFileSink(file.toPath(), LogFileSink.DEFAULT_BUFFER_SIZE,
+        LogFileSink.DEFAULT_FLUSH_INTERVAL_MS);
+  }
+
+  private void closeLogFileSinks(final LogFileSink outputSink, final LogFileSink errorSink) {
+    for (final LogFileSink sink : new LogFileSink[] {outputSink, errorSink}) {
+      if (sink != null) {
+        try {
+          sink.close();
+        } catch (IOException ex) {
+          this.logError("Unable to close process log file " + sink.getFile() + ": " + ex);
+        }
       }
+    }
+  }
+
+  private static void closeProcessOutput(final Process process, final Future<?>... pumps) {
+    closeQuietly(process.getInputStream());
+    closeQuietly(process.getErrorStream());
+    for (final Future<?> pump : pumps) {
+      pump.cancel(true);
+    }
+  }
+
+  private static void closeQuietly(final InputStream stream) {
+    try {
+      stream.close();
+    } catch (IOException ex) {
+      // ignore
+    }
+  }
+
+  /**
+   * Wait for end of stream in process output pumps.
+   *
+   * @param timeoutMs max time to wait for all pumps in milliseconds, no limit if 0 or negative
+   * @param pumps     pumps to be waited
+   * @return true if all pumps are completed, false if timeout or interruption
+   */
+  private boolean awaitPumps(final long timeoutMs, final Future<?>... pumps) {
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    for (final Future<?> pump : pumps) {
       try {
-        this.logDebug("Waiting for end of log collecting threads");
-        threadStdOut.join(5000L);
-        threadStdErr.join(5000L);
-      } catch (IllegalThreadStateException ex) {
-        this.logWarn("Can't close std reading threads during 5 seconds");
+        if (timeoutMs <= 0L) {
+          pump.get();
+        } else {
+          pump.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+      } catch (TimeoutException ex) {
+        return false;
+      } catch (ExecutionException ex) {
+        this.logError("Error during process output reading: " + ex.getCause());
       } catch (InterruptedException ex) {
         this.logError("Detected thread interruption");
         Thread.currentThread().interrupt();
+        return false;
       }
     }
-
-    if (exitCode != this.expectedExitCode) {
-      throw new MojoFailureException("Process exit code: " + exitCode);
-    }
+    return true;
   }
 
-  private Thread prepareCatchStream(
+  private ProcessOutputPump prepareCatchStream(
       final String threadId,
       final InputStream inputStream,
-      final BiConsumer<String, Boolean> lineConsumer
+      final LogFileSink sink,
+      final Consumer<String> lineConsumer
   ) {
-    final Thread thread = new Thread(() -> {
+    return new ProcessOutputPump(inputStream, sink, Charset.defaultCharset(), lineConsumer,
+        ex -> this.logError('(' + threadId + ") IOException during output processing: "
+            + ex.getMessage()));
+  }
+
+  private Runnable makeNamedTask(final String threadId, final Runnable task) {
+    return () -> {
+      final Thread thread = Thread.currentThread();
+      final String threadName = thread.getName();
+      thread.setName(threadId);
       this.logDebug("Start catchStream thread " + threadId);
-      try (final BufferedReader reader = new BufferedReader(
-          new InputStreamReader(inputStream,
-              Charset.defaultCharset()))) {
-        final StringBuilder buffer = new StringBuilder();
-        while (!Thread.currentThread().isInterrupted()) {
-          final int nextChar = reader.read();
-          if (nextChar < 0) {
-            break;
-          }
-          if (nextChar == '\n') {
-            lineConsumer.accept(buffer.toString(), true);
-            buffer.setLength(0);
-          } else {
-            buffer.append((char) nextChar);
-          }
-        }
-        if (buffer.length() > 0) {
-          lineConsumer.accept(buffer.toString(), false);
-        }
-      } catch (IOException ex) {
-        this.logError(
-            '(' + threadId + ") IOException during input stream read: " + ex.getMessage());
+      try {
+        task.run();
       } finally {
         this.logDebug("Completed catchStream thread " + threadId);
+        thread.setName(threadName);
       }
-    }, threadId);
-    thread.setDaemon(true);
-    return thread;
+    };
   }
 
   @SuppressWarnings("unused")
@@ -1,16 +1,19 @@
 package com.igormaznitsa.mvngolang;
 
+import com.igormaznitsa.mvngolang.utils.ChecksumDigester;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.zip.CRC32C;
 import org.apache.commons.codec.digest.DigestUtils;
 
 public enum GoRecordChecksum {
   SHA256(DigestUtils::sha256Hex),
-  MD5(DigestUtils::md5Hex);
+  MD5(DigestUtils::md5Hex),
+  CRC32C(GoRecordChecksum::crc32cHex);
 
   private static final List<GoRecordChecksum> VALUES = List.of(GoRecordChecksum.values());
   private final Function<byte[], String> checksumProvider;
@@ -29,12 +32,23 @@ public enum GoRecordChecksum {
     }
   }
 
+  private static String crc32cHex(final byte[] data) {
+    final CRC32C crc = new CRC32C();
+    crc.update(data);
+    return String.format("%08x", crc.getValue());
+  }
+
   public String makeHex(final InputStream inputStream) throws IOException {
     switch (this) {
       case MD5:
         return DigestUtils.md5Hex(inputStream);
       case SHA256:
         return DigestUtils.sha256Hex(inputStream);
+      case CRC32C: {
+        final ChecksumDigester digester = new ChecksumDigester(List.of(this));
+        digester.update(inputStream, Long.MAX_VALUE);
+        return digester.getHex(this);
+      }
       default:
         throw new Error("Unexpected error: " + this);
     }
@@ -0,0 +1,48 @@
+package com.igormaznitsa.mvngolang;
+
+/**
+ * Container keeps parameters of GoSDK to be prefetched, not defined values are taken from the mojo
+ * parameters.
+ *
+ * @since 1.1.3
+ */
+@SuppressWarnings({"CanBeFinal", "UnusedAssignment"})
+public class GoSdkTarget {
+  /**
+   * GoSDK version, for instance 1.25.5
+   */
+  public String goVersion;
+  /**
+   * GoSDK OS, for instance linux
+   */
+  public String os;
+  /**
+   * GoSDK architecture, for instance amd64
+   */
+  public String arch;
+  /**
+   * Optional suffix for OSX.
+   */
+  public String osxVersion;
+
+  public GoSdkTarget() {
+  }
+
+  public GoSdkTarget(final String goVersion, final String os, final String arch,
+                     final String osxVersion) {
+    this.goVersion = goVersion;
+    this.os = os;
+    this.arch = arch;
+    this.osxVersion = osxVersion;
+  }
+
+  @Override
+  public String toString() {
+    return "GoSdkTarget{" +
+        "goVersion='" + goVersion + '\'' +
+        ", os='" + os + '\'' +
+        ", arch='" + arch + '\'' +
+        ", osxVersion='" + osxVersion + '\'' +
+        '}';
+  }
+}
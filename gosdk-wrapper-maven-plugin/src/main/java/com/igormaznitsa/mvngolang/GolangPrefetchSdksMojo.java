@@ -0,0 +1,123 @@
+package com.igormaznitsa.mvngolang;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * The mojo loads and caches several GoSDKs concurrently, for instance to prepare all GoSDKs needed for matrix build in one step.
+ *
+ * @since 1.1.3
+ */
+@Mojo(name = "prefetch-sdks", defaultPhase = LifecyclePhase.INITIALIZE, requiresProject = false, threadSafe = true)
+public class GolangPrefetchSdksMojo extends AbstractGolangSdkAwareMojo {
+
+  /**
+   * Skip execution of the mojo.
+   *
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.prefetch.skip", name = "skip", defaultValue = "false")
+  private boolean skip;
+
+  /**
+   * List of GoSDKs to be cached, not defined goVersion, os, arch and osxVersion are taken from the mojo parameters.
+   * If the list is empty then only GoSDK defined by the mojo parameters (including sdkArchiveBaseName) is cached, the list can't be combined with sdkArchiveBaseName.
+   *
+   * @since 1.1.3
+   */
+  @Parameter(name = "sdks")
+  private List<GoSdkTarget> sdks;
+
+  /**
+   * Max number of GoSDKs loaded concurrently.
+   *
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.prefetch.parallelism", name = "parallelism", defaultValue = "4")
+  private int parallelism = 4;
+
+  @Override
+  protected boolean isSkip() {
+    return this.skip;
+  }
+
+  @Override
+  protected boolean isGoSdkRequired() {
+    return false;
+  }
+
+  @Override
+  protected void onMojoExecute(final Path goSdkFolder)
+      throws MojoExecutionException, MojoFailureException {
+    final Set<String> sdkBaseNames = new LinkedHashSet<>();
+    if (this.sdks == null || this.sdks.isEmpty()) {
+      sdkBaseNames.add(this.findSdkBaseName());
+    } else {
+      for (final GoSdkTarget target : this.sdks) {
+        sdkBaseNames.add(this.findSdkBaseName(target));
+      }
+    }
+    if (sdkBaseNames.size() > 1 && this.isSdkSourceForced()) {
+      throw new MojoExecutionException(
+          "Several GoSDKs can't be prefetched if GoSDK source is forced by parameters");
+    }
+
+    final int threads = Math.max(1, Math.min(this.parallelism, sdkBaseNames.size()));
+    if (threads > 1) {
+      this.disableLoadIndicator();
+    }
+    this.logInfo(String.format("Prefetching %d GoSDK(s) in %d thread(s): %s", sdkBaseNames.size(),
+        threads, String.join(", ", sdkBaseNames)));
+
+    final long start = System.currentTimeMillis();
+    final AtomicInteger threadCounter = new AtomicInteger();
+    final ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+      final Thread thread = new Thread(r, "gosdk-prefetch-" + threadCounter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    final Map<String, Future<Path>> futures = new LinkedHashMap<>();
+    final List<String> failed = new ArrayList<>();
+    try {
+      for (final String sdkBaseName : sdkBaseNames) {
+        futures.put(sdkBaseName, executor.submit(() -> this.ensureCachedGoSdk(sdkBaseName)));
+      }
+      for (final Map.Entry<String, Future<Path>> entry : futures.entrySet()) {
+        try {
+          this.logInfo("GoSDK is cached: " + entry.getValue().get());
+        } catch (ExecutionException ex) {
+          this.logError("Can't prefetch GoSDK " + entry.getKey() + ": " + ex.getCause().getMessage());
+          this.getLog().debug("Error during prefetch of " + entry.getKey(), ex.getCause());
+          failed.add(entry.getKey());
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new MojoExecutionException("Prefetch has been interrupted", ex);
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    this.logInfo(String.format("Prefetch of %d GoSDK(s) completed in %d ms", sdkBaseNames.size(),
+        System.currentTimeMillis() - start));
+    this.evictCachedGoSdks();
+
+    if (!failed.isEmpty()) {
+      throw new MojoFailureException("Can't prefetch GoSDK(s): " + String.join(", ", failed));
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package com.igormaznitsa.mvngolang;
+
+import com.igormaznitsa.mvngolang.utils.ResolvedSdkCache;
+import com.igormaznitsa.mvngolang.utils.SdkStoreCleaner;
+import java.io.IOException;
+import java.time.Duration;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Prune the store folder: remove leftovers of interrupted operations, evict least recently used GoSDKs exceeding configured limits and remove not used files of content addressed store.
+ * GoSDKs locked by other processes are not evicted, unlike automatic eviction recently used GoSDKs are not protected.
+ * Parameters have the same names and properties as limits of automatic eviction so that configuration can be shared.
+ *
+ * @since 1.1.3
+ */
+@Mojo(name = "prune-sdk-cache", requiresProject = false, threadSafe = true)
+public class GolangPruneSdkCacheMojo extends AbstractCommonMojo {
+
+  /**
+   * Skip execution of the mojo.
+   *
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.prune.skip", name = "skip", defaultValue = "false")
+  private boolean skip;
+
+  /**
+   * Max summary size of cached GoSDK folders in megabytes. Zero means no limit.
+   *
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.sdk.cache.max.size.mb", name = "sdkCacheMaxSizeMb", defaultValue = "0")
+  private long sdkCacheMaxSizeMb;
+
+  /**
+   * Max number of cached GoSDKs. Zero means no limit.
+   *
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.sdk.cache.max.count", name = "sdkCacheMaxCount", defaultValue = "0")
+  private int sdkCacheMaxCount;
+
+  /**
+   * Max number of days since last use of cached GoSDK. Zero means no limit.
+   *
+   * @since 1.1.3
+   */
+  @Parameter(property = "mvn.golang.sdk.cache.max.age.days", name = "sdkCacheMaxAgeDays", defaultValue = "0")
+  private int sdkCacheMaxAgeDays;
+
+  @Override
+  protected boolean isSkip() {
+    return this.skip;
+  }
+
+  @Override
+  public void doExecute() throws MojoExecutionException {
+    final SdkStoreCleaner cleaner = new SdkStoreCleaner(this.storeFolder.toPath(),
+        this.sdkCacheMaxSizeMb * 1024L * 1024L, this.sdkCacheMaxCount,
+        Duration.ofDays(this.sdkCacheMaxAgeDays), null, this::logInfo);
+    if (!cleaner.isLimited()) {
+      this.logInfo("No limits defined, only leftovers will be removed");
+    }
+    this.logInfo("Pruning store folder: " + this.storeFolder);
+    try {
+      final SdkStoreCleaner.Result result =
+          cleaner.prune(ResolvedSdkCache.listInStore(this.storeFolder.toPath()));
+      this.logInfo("Store folder pruned: " + result);
+    } catch (IOException ex) {
+      throw new MojoExecutionException("Can't prune store folder: " + this.storeFolder, ex);
+    }
+  }
+}
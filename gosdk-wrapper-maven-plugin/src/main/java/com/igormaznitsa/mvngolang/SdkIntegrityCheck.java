@@ -0,0 +1,29 @@
+package com.igormaznitsa.mvngolang;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+public enum SdkIntegrityCheck {
+  /**
+   * Trust completed GoSDK folder without check.
+   */
+  NONE,
+  /**
+   * Check existence, size and modification time of GoSDK files.
+   */
+  FAST,
+  /**
+   * Check existence and size of GoSDK files and re-calculate their SHA-256.
+   */
+  DEEP;
+
+  public static Optional<SdkIntegrityCheck> find(final String name) {
+    if (name == null || name.isBlank()) {
+      return Optional.empty();
+    }
+    final String normalized = name.trim().toUpperCase(Locale.ROOT);
+    return Arrays.stream(SdkIntegrityCheck.values()).filter(x -> x.name().equals(normalized))
+        .findFirst();
+  }
+}
@@ -1,31 +1,59 @@
 package com.igormaznitsa.mvngolang.utils;
 
+import static com.igormaznitsa.mvngolang.GoRecordChecksum.CRC32C;
+import static com.igormaznitsa.mvngolang.GoRecordChecksum.MD5;
+import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
 import static java.net.HttpURLConnection.HTTP_OK;
+import static java.net.HttpURLConnection.HTTP_PARTIAL;
 import static java.util.Objects.requireNonNull;
 import static java.util.Objects.requireNonNullElse;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.InetAddress;
 import java.net.URI;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongConsumer;
 import java.util.function.LongFunction;
 import java.util.regex.Pattern;
-import java.util.zip.CRC32C;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.hc.client5.http.auth.AuthScope;
 import org.apache.hc.client5.http.auth.NTCredentials;
 import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.classic.methods.HttpHead;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
 import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
@@ -35,13 +63,16 @@ import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.apache.hc.client5.http.impl.routing.DefaultProxyRoutePlanner;
 import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.protocol.RedirectLocations;
 import org.apache.hc.client5.http.routing.HttpRoutePlanner;
 import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
+import org.apache.hc.core5.concurrent.Cancellable;
 import org.apache.hc.core5.http.ClassicHttpRequest;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HeaderElement;
 import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.ParseException;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
@@ -59,13 +90,26 @@ public class ApacheHttpClient5Loader {
 
   public static final ApacheHttpClient5Loader INSTANCE = new ApacheHttpClient5Loader();
 
+  /**
+   * Max number of concurrent segments for segmented load, it is also max number of connections per route.
+   */
+  public static final int MAX_DOWNLOAD_SEGMENTS = 16;
+  private static final int SEGMENT_BUFFER_SIZE = 256 * 1024;
+  private static final long RESUME_CHECKPOINT_SIZE = 4L * 1024L * 1024L;
+  private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
   private final PoolingHttpClientConnectionManager connectionManagerNoSslCheck;
   private final PoolingHttpClientConnectionManager connectionManagerDefault;
 
   private ApacheHttpClient5Loader() {
     try {
-      this.connectionManagerDefault = PoolingHttpClientConnectionManagerBuilder.create().build();
+      this.connectionManagerDefault = PoolingHttpClientConnectionManagerBuilder.create()
+          .setMaxConnPerRoute(MAX_DOWNLOAD_SEGMENTS)
+          .setMaxConnTotal(MAX_DOWNLOAD_SEGMENTS * 4)
+          .build();
       this.connectionManagerNoSslCheck = PoolingHttpClientConnectionManagerBuilder.create()
+          .setMaxConnPerRoute(MAX_DOWNLOAD_SEGMENTS)
+          .setMaxConnTotal(MAX_DOWNLOAD_SEGMENTS * 4)
           .setConnectionFactory(ManagedHttpClientConnectionFactory.INSTANCE)
           .setTlsSocketStrategy(
               new DefaultClientTlsStrategy(
@@ -109,6 +153,57 @@ public class ApacheHttpClient5Loader {
       final HttpClient httpClient,
       final String resourceUri,
       final List<String> acceptedMimes
+  ) throws IOException {
+    return loadResourceAsString(httpMethod, httpClient, resourceUri, acceptedMimes, null);
+  }
+
+  /**
+   * Load resource as string.
+   *
+   * @param httpMethod          http method
+   * @param httpClient          http client to make request, must not be null
+   * @param resourceUri         URI of the resource, must not be null
+   * @param acceptedMimes       list of accepted mime types, can be null
+   * @param cancellableConsumer consumer gets the request before execution to cancel it from another
+   *                            thread, can be null
+   * @return loaded text, can be null if there is no entity
+   * @throws IOException if any IO error, unexpected status or the request has been cancelled
+   */
+  public static String loadResourceAsString(
+      final String httpMethod,
+      final HttpClient httpClient,
+      final String resourceUri,
+      final List<String> acceptedMimes,
+      final Consumer<Cancellable> cancellableConsumer
+  ) throws IOException {
+    return loadResourceAsString(httpMethod, httpClient, resourceUri, acceptedMimes, null, null,
+        cancellableConsumer).getText();
+  }
+
+  /**
+   * Load resource as string with optional validators of previously loaded resource, if any
+   * validator is provided then the request is conditional and the server can answer that the
+   * resource is not changed.
+   *
+   * @param httpMethod          http method
+   * @param httpClient          http client to make request, must not be null
+   * @param resourceUri         URI of the resource, must not be null
+   * @param acceptedMimes       list of accepted mime types, can be null
+   * @param etag                ETag of previously loaded resource, can be null
+   * @param lastModified        Last-Modified of previously loaded resource, can be null
+   * @param cancellableConsumer consumer gets the request before execution to cancel it from another
+   *                            thread, can be null
+   * @return loaded text or not modified flag, with validators of the resource
+   * @throws IOException if any IO error, unexpected status or the request has been cancelled
+   */
+  public static ConditionalText loadResourceAsString(
+      final String httpMethod,
+      final HttpClient httpClient,
+      final String resourceUri,
+      final List<String> acceptedMimes,
+      final String etag,
+      final String lastModified,
+      final Consumer<Cancellable> cancellableConsumer
   ) throws IOException {
     final HttpHost target;
     try {
@@ -116,20 +211,36 @@ public class ApacheHttpClient5Loader {
     } catch (Exception e) {
       throw new IllegalArgumentException("Can't decode URI: " + resourceUri, e);
     }
-    final ClassicHttpRequest request = new BasicClassicHttpRequest(httpMethod, resourceUri);
+    final HttpUriRequestBase request =
+        new HttpUriRequestBase(httpMethod, URI.create(resourceUri));
     request.setHeader("Accept", acceptedMimes == null ? "*/*" : String.join(",", acceptedMimes));
+    if (etag != null) {
+      request.setHeader(HttpHeaders.IF_NONE_MATCH, etag);
+    }
+    if (lastModified != null) {
+      request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+    }
+    if (cancellableConsumer != null) {
+      cancellableConsumer.accept(request);
+    }
     final HttpContext context = HttpClientContext.create();
     try (final ClassicHttpResponse response = httpClient.executeOpen(target, request, context)) {
-      if (response.getCode() == HTTP_OK) {
-        HttpEntity entity = response.getEntity();
-        if (entity != null) {
-          try {
-            return EntityUtils.toString(entity);
-          } catch (ParseException ex) {
-            throw new IOException("Can't parse entity", ex);
-          }
-        } else {
-          return null;
+      final Header etagHeader = response.getFirstHeader(HttpHeaders.ETAG);
+      final Header lastModifiedHeader = response.getFirstHeader(HttpHeaders.LAST_MODIFIED);
+      if (response.getCode() == HTTP_NOT_MODIFIED && (etag != null || lastModified != null)) {
+        EntityUtils.consume(response.getEntity());
+        return new ConditionalText(true, null, null,
+            etagHeader == null ? etag : etagHeader.getValue(),
+            lastModifiedHeader == null ? lastModified : lastModifiedHeader.getValue());
+      } else if (response.getCode() == HTTP_OK) {
+        final HttpEntity entity = response.getEntity();
+        try {
+          return new ConditionalText(false, entity == null ? null : EntityUtils.toString(entity),
+              entity == null ? null : entity.getContentType(),
+              etagHeader == null ? null : etagHeader.getValue(),
+              lastModifiedHeader == null ? null : lastModifiedHeader.getValue());
+        } catch (ParseException ex) {
+          throw new IOException("Can't parse entity", ex);
         }
       } else {
         throw new HttpsNotOkStatusException(response.getReasonPhrase(), response.getCode());
@@ -142,7 +253,6 @@ public class ApacheHttpClient5Loader {
     void apply(long downloaded, long total, int progress);
   }
 
-  @SuppressWarnings("resource")
   public static Header[] loadResource(
       final String httpMethod,
       final HttpClient httpClient,
@@ -151,6 +261,35 @@ public class ApacheHttpClient5Loader {
       final Function<Header[], OutputStream> outputStreamProvider,
       final LongFunction<Integer> internalBufferSizeProvider,
       final List<String> acceptedMimes
+  ) throws IOException {
+    return loadResource(httpMethod, httpClient, resourceUri, onProgressConsumer,
+        outputStreamProvider, internalBufferSizeProvider, acceptedMimes, null);
+  }
+
+  /**
+   * Load resource and write it into provided output stream.
+   *
+   * @param httpMethod                 http method
+   * @param httpClient                 http client to make request, must not be null
+   * @param resourceUri                URI of the resource, must not be null
+   * @param onProgressConsumer         consumer of load progress, must not be null
+   * @param outputStreamProvider       provider of output stream for response headers, will be closed after load
+   * @param internalBufferSizeProvider provider of buffer size, can be null
+   * @param acceptedMimes              list of accepted mime types, can be null
+   * @param digester                   digester to calculate checksums of loaded data on the fly, can be null
+   * @return headers of the response
+   * @throws IOException if any transport or IO error
+   */
+  @SuppressWarnings("resource")
+  public static Header[] loadResource(
+      final String httpMethod,
+      final HttpClient httpClient,
+      final String resourceUri,
+      final ProgressConsumer onProgressConsumer,
+      final Function<Header[], OutputStream> outputStreamProvider,
+      final LongFunction<Integer> internalBufferSizeProvider,
+      final List<String> acceptedMimes,
+      final ChecksumDigester digester
   ) throws IOException {
     final HttpHost target;
     try {
@@ -173,14 +312,18 @@ public class ApacheHttpClient5Loader {
           final OutputStream outputStream = outputStreamProvider.apply(response.getHeaders());
           if (outputStream != null) {
             final long contentLength = entity.getContentLength();
-            try (final InputStream inputStream = entity.getContent()) {
+            try (final InputStream inputStream = entity.getContent();
+                 final OutputStream closeableOutputStream = outputStream) {
               final byte[] internalBuffer = new byte[internalBufferSizeProvider == null ? 16384 :
                   internalBufferSizeProvider.apply(contentLength)];
               long totalRead = 0;
               int bytesRead;
               while ((bytesRead = inputStream.read(internalBuffer, 0, internalBuffer.length)) !=
                   -1) {
-                outputStream.write(internalBuffer, 0, bytesRead);
+                closeableOutputStream.write(internalBuffer, 0, bytesRead);
+                if (digester != null) {
+                  digester.update(internalBuffer, 0, bytesRead);
+                }
                 totalRead += bytesRead;
                 if (contentLength > 0) {
                   int progress = (int) ((totalRead * 100) / contentLength);
@@ -200,6 +343,487 @@ public class ApacheHttpClient5Loader {
     }
   }
 
+  @FunctionalInterface
+  public interface ResourceStreamConsumer {
+    void accept(Header[] headers, InputStream inputStream) throws IOException;
+  }
+
+  /**
+   * Load resource by GET request and provide its content stream to consumer, it allows to process
+   * data while it is being downloaded. If the consumer completes normally then rest of the entity is
+   * consumed to keep connection reusable.
+   *
+   * @param httpClient         http client to make request, must not be null
+   * @param resourceUri        URI of the resource, must not be null
+   * @param onProgressConsumer consumer of load progress, must not be null
+   * @param acceptedMimes      list of accepted mime types, can be null
+   * @param streamConsumer     consumer of response content stream, must not be null
+   * @return headers of the response
+   * @throws IOException if any transport or IO error or error thrown by the consumer
+   */
+  public static Header[] processResource(
+      final HttpClient httpClient,
+      final String resourceUri,
+      final ProgressConsumer onProgressConsumer,
+      final List<String> acceptedMimes,
+      final ResourceStreamConsumer streamConsumer
+  ) throws IOException {
+    return processResource(httpClient, resourceUri, onProgressConsumer, acceptedMimes, null,
+        streamConsumer);
+  }
+
+  /**
+   * Load resource by GET request and provide its content stream to consumer.
+   *
+   * @param httpClient          http client to make request, must not be null
+   * @param resourceUri         URI of the resource, must not be null
+   * @param onProgressConsumer  consumer of load progress, must not be null
+   * @param acceptedMimes       list of accepted mime types, can be null
+   * @param cancellableConsumer consumer gets the request before execution, the request can be
+   *                            cancelled from another thread or by the stream consumer to stop
+   *                            reading without consuming rest of the entity, can be null
+   * @param streamConsumer      consumer of response content stream, must not be null
+   * @return headers of the response
+   * @throws IOException if any transport or IO error or error thrown by the consumer
+   */
+  public static Header[] processResource(
+      final HttpClient httpClient,
+      final String resourceUri,
+      final ProgressConsumer onProgressConsumer,
+      final List<String> acceptedMimes,
+      final Consumer<Cancellable> cancellableConsumer,
+      final ResourceStreamConsumer streamConsumer
+  ) throws IOException {
+    final HttpHost target;
+    try {
+      target = HttpHost.create(URI.create(resourceUri));
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't decode URI: " + resourceUri, e);
+    }
+    final HttpGet request = new HttpGet(URI.create(resourceUri));
+    request.setHeader("Accept", acceptedMimes == null ? "*/*" : String.join(",", acceptedMimes));
+    if (cancellableConsumer != null) {
+      cancellableConsumer.accept(request);
+    }
+
+    final HttpContext context = HttpClientContext.create();
+    final ClassicHttpResponse response = httpClient.executeOpen(target, request, context);
+    try {
+      if (response.getCode() != HTTP_OK) {
+        throw new HttpsNotOkStatusException(response.getReasonPhrase(), response.getCode());
+      }
+      final HttpEntity entity = response.getEntity();
+      if (entity == null) {
+        throw new IOException("Response doesn't contain entity: " + resourceUri);
+      }
+      final long contentLength = entity.getContentLength();
+      final InputStream inputStream =
+          new ProgressInputStream(entity.getContent(), contentLength, onProgressConsumer);
+      streamConsumer.accept(response.getHeaders(), inputStream);
+      if (!request.isCancelled()) {
+        inputStream.close();
+        EntityUtils.consume(entity);
+      }
+      return response.getHeaders();
+    } finally {
+      if (request.isCancelled()) {
+        // connection is already dropped so rest of the entity can't be read
+        IOUtils.closeQuietly(response);
+      } else {
+        response.close();
+      }
+    }
+  }
+
+  /**
+   * Load resource into a file through several concurrent ranged requests. The server is probed by a HEAD
+   * request, if it doesn't report byte range support and content length then the resource is loaded
+   * through a single stream.
+   *
+   * @param httpClient                 http client to make requests, must not be null
+   * @param resourceUri                URI of the resource, must not be null
+   * @param targetFile                 file to save loaded data, will be overwritten
+   * @param segments                   max number of concurrent segments, limited by {@link #MAX_DOWNLOAD_SEGMENTS}
+   * @param minSegmentSize             min size of one segment in bytes
+   * @param onProgressConsumer         consumer of load progress, must not be null
+   * @param internalBufferSizeProvider provider of buffer size for single stream load, can be null
+   * @param acceptedMimes              list of accepted mime types, can be null
+   * @param digester                   digester to calculate checksums on the fly, used only for single stream load, can be null
+   * @return headers of the resource response
+   * @throws IOException if any transport or IO error
+   */
+  public static Header[] loadResourceSegmented(
+      final HttpClient httpClient,
+      final String resourceUri,
+      final Path targetFile,
+      final int segments,
+      final long minSegmentSize,
+      final ProgressConsumer onProgressConsumer,
+      final LongFunction<Integer> internalBufferSizeProvider,
+      final List<String> acceptedMimes,
+      final ChecksumDigester digester
+  ) throws IOException {
+    final int maxSegments = Math.max(1, Math.min(segments, MAX_DOWNLOAD_SEGMENTS));
+    if (maxSegments > 1) {
+      final RangeProbe probe = probeRanges(httpClient, resourceUri, acceptedMimes);
+      if (probe != null) {
+        final int segmentCount =
+            (int) Math.min(maxSegments, probe.contentLength / Math.max(1L, minSegmentSize));
+        if (segmentCount > 1) {
+          try {
+            loadSegments(httpClient, probe, targetFile, segmentCount, onProgressConsumer);
+            return probe.headers;
+          } catch (RangeNotSupportedException ex) {
+            // server ignores range requests, load through single stream
+          }
+        }
+      }
+    }
+    return loadResource("GET", httpClient, resourceUri, onProgressConsumer,
+        h -> {
+          try {
+            return Files.newOutputStream(targetFile);
+          } catch (IOException ex) {
+            throw new UncheckedIOException("Can't open file: " + targetFile, ex);
+          }
+        },
+        internalBufferSizeProvider,
+        acceptedMimes,
+        digester);
+  }
+
+  /**
+   * Load resource into a file with possibility to resume interrupted load. Current state of load is
+   * saved into a state file (URI, validator of the resource and number of saved bytes), if the state
+   * matches the resource then only missing part of the resource is requested with Range and If-Range
+   * headers. If the server doesn't support ranges or the resource has been changed then the
+   * resource is loaded from start.
+   *
+   * @param httpClient                 http client to make requests, must not be null
+   * @param resourceUri                URI of the resource, must not be null
+   * @param targetFile                 file to save loaded data, existing data can be reused
+   * @param stateFile                  file to keep state of load, must not be null
+   * @param onProgressConsumer         consumer of load progress, must not be null
+   * @param internalBufferSizeProvider provider of buffer size, can be null
+   * @param acceptedMimes              list of accepted mime types, can be null
+   * @param digester                   digester to calculate checksums of whole resource, already loaded part is read from the file, can be null
+   * @return headers of the resource response
+   * @throws IOException if any transport or IO error, the state file is kept for next attempt
+   */
+  public static Header[] loadResourceResumable(
+      final HttpClient httpClient,
+      final String resourceUri,
+      final Path targetFile,
+      final Path stateFile,
+      final ProgressConsumer onProgressConsumer,
+      final LongFunction<Integer> internalBufferSizeProvider,
+      final List<String> acceptedMimes,
+      final ChecksumDigester digester
+  ) throws IOException {
+    Header[] headers = tryLoadResourceResumable(httpClient, resourceUri, targetFile, stateFile,
+        onProgressConsumer, internalBufferSizeProvider, acceptedMimes, digester);
+    if (headers == null) {
+      Files.deleteIfExists(stateFile);
+      headers = tryLoadResourceResumable(httpClient, resourceUri, targetFile, stateFile,
+          onProgressConsumer, internalBufferSizeProvider, acceptedMimes, digester);
+    }
+    return headers;
+  }
+
+  /**
+   * Make attempt to load resource with resume from saved state.
+   *
+   * @return headers of the resource response or null if the server rejected requested range and
+   * the saved state must be dropped
+   * @see #loadResourceResumable(HttpClient, String, Path, Path, ProgressConsumer, LongFunction, List, ChecksumDigester)
+   */
+  private static Header[] tryLoadResourceResumable(
+      final HttpClient httpClient,
+      final String resourceUri,
+      final Path targetFile,
+      final Path stateFile,
+      final ProgressConsumer onProgressConsumer,
+      final LongFunction<Integer> internalBufferSizeProvider,
+      final List<String> acceptedMimes,
+      final ChecksumDigester digester
+  ) throws IOException {
+    final ResumeState state = ResumeState.load(stateFile);
+    long offset = 0L;
+    if (state != null
+        && resourceUri.equals(state.uri)
+        && state.validator != null
+        && Files.isRegularFile(targetFile)) {
+      offset = Math.min(Files.size(targetFile), state.loaded);
+    }
+
+    final URI uri = URI.create(resourceUri);
+    final HttpGet request = new HttpGet(uri);
+    request.setHeader("Accept", acceptedMimes == null ? "*/*" : String.join(",", acceptedMimes));
+    if (offset > 0L) {
+      request.setHeader(HttpHeaders.RANGE, "bytes=" + offset + '-');
+      request.setHeader(HttpHeaders.IF_RANGE, state.validator);
+    }
+
+    try (final ClassicHttpResponse response = httpClient.executeOpen(makeHttpHost(uri), request,
+        HttpClientContext.create())) {
+      if (offset > 0L && response.getCode() == HTTP_RANGE_NOT_SATISFIABLE) {
+        return null;
+      }
+      if (response.getCode() == HTTP_PARTIAL && offset > 0L) {
+        final Header contentRange = response.getFirstHeader(HttpHeaders.CONTENT_RANGE);
+        if (contentRange == null ||
+            !contentRange.getValue().trim().startsWith("bytes " + offset + '-')) {
+          throw new IOException("Unexpected content range: " +
+              (contentRange == null ? null : contentRange.getValue()));
+        }
+      } else if (response.getCode() == HTTP_OK) {
+        offset = 0L;
+      } else {
+        throw new HttpsNotOkStatusException(response.getReasonPhrase(), response.getCode());
+      }
+
+      final HttpEntity entity = response.getEntity();
+      if (entity == null) {
+        throw new IOException("Response doesn't contain any entity: " + resourceUri);
+      }
+      try {
+        final long entityLength = entity.getContentLength();
+        final long contentLength = entityLength < 0L ? -1L : entityLength + offset;
+        final Header eTag = response.getFirstHeader(HttpHeaders.ETAG);
+        final Header lastModified = response.getFirstHeader(HttpHeaders.LAST_MODIFIED);
+        final String validator;
+        if (eTag != null && !eTag.getValue().startsWith("W/")) {
+          validator = eTag.getValue();
+        } else {
+          validator = lastModified == null ? null : lastModified.getValue();
+        }
+
+        final ResumeState newState = new ResumeState(resourceUri, validator, offset);
+        newState.save(stateFile);
+
+        try (final FileChannel channel = FileChannel.open(targetFile, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE);
+             final InputStream inputStream = entity.getContent()) {
+          channel.truncate(offset);
+          if (digester != null) {
+            digester.reset();
+            if (offset > 0L) {
+              try (final InputStream loadedPart = Files.newInputStream(targetFile)) {
+                if (digester.update(loadedPart, offset) != offset) {
+                  throw new IOException("Can't read already loaded part of file: " + targetFile);
+                }
+              }
+            }
+          }
+          channel.position(offset);
+          final byte[] internalBuffer = new byte[internalBufferSizeProvider == null ? 16384 :
+              internalBufferSizeProvider.apply(contentLength)];
+          long totalRead = offset;
+          long nextCheckpoint = offset + RESUME_CHECKPOINT_SIZE;
+          int bytesRead;
+          while ((bytesRead = inputStream.read(internalBuffer, 0, internalBuffer.length)) != -1) {
+            final ByteBuffer byteBuffer = ByteBuffer.wrap(internalBuffer, 0, bytesRead);
+            while (byteBuffer.hasRemaining()) {
+              channel.write(byteBuffer);
+            }
+            if (digester != null) {
+              digester.update(internalBuffer, 0, bytesRead);
+            }
+            totalRead += bytesRead;
+            if (totalRead >= nextCheckpoint) {
+              channel.force(false);
+              newState.loaded = totalRead;
+              newState.save(stateFile);
+              nextCheckpoint = totalRead + RESUME_CHECKPOINT_SIZE;
+            }
+            if (contentLength > 0) {
+              onProgressConsumer.apply(totalRead, contentLength,
+                  (int) ((totalRead * 100) / contentLength));
+            } else {
+              onProgressConsumer.apply(totalRead, -1, -1);
+            }
+          }
+          channel.force(false);
+          newState.loaded = totalRead;
+          newState.save(stateFile);
+          onProgressConsumer.apply(totalRead, contentLength, 100);
+        }
+      } finally {
+        EntityUtils.consume(entity);
+      }
+      return response.getHeaders();
+    }
+  }
+
+  private static HttpHost makeHttpHost(final URI uri) {
+    try {
+      return HttpHost.create(uri);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Can't decode URI: " + uri, e);
+    }
+  }
+
+  private static RangeProbe probeRanges(
+      final HttpClient httpClient,
+      final String resourceUri,
+      final List<String> acceptedMimes
+  ) throws IOException {
+    final URI uri = URI.create(resourceUri);
+    final HttpHead request = new HttpHead(uri);
+    request.setHeader("Accept", acceptedMimes == null ? "*/*" : String.join(",", acceptedMimes));
+    final HttpClientContext context = HttpClientContext.create();
+    try (final ClassicHttpResponse response = httpClient.executeOpen(makeHttpHost(uri), request,
+        context)) {
+      if (response.getCode() != HTTP_OK) {
+        return null;
+      }
+      final Header acceptRanges = response.getFirstHeader(HttpHeaders.ACCEPT_RANGES);
+      final Header contentLength = response.getFirstHeader(HttpHeaders.CONTENT_LENGTH);
+      if (acceptRanges == null
+          || !acceptRanges.getValue().toLowerCase(Locale.ROOT).contains("bytes")
+          || contentLength == null) {
+        return null;
+      }
+      final long length;
+      try {
+        length = Long.parseLong(contentLength.getValue().trim());
+      } catch (NumberFormatException ex) {
+        return null;
+      }
+      if (length <= 0L) {
+        return null;
+      }
+
+      final RedirectLocations redirects = context.getRedirectLocations();
+      final URI finalUri =
+          redirects == null || redirects.size() == 0 ? uri : redirects.get(redirects.size() - 1);
+
+      final Header eTag = response.getFirstHeader(HttpHeaders.ETAG);
+      final Header lastModified = response.getFirstHeader(HttpHeaders.LAST_MODIFIED);
+      final String validator;
+      if (eTag != null && !eTag.getValue().startsWith("W/")) {
+        validator = eTag.getValue();
+      } else {
+        validator = lastModified == null ? null : lastModified.getValue();
+      }
+      return new RangeProbe(finalUri, length, validator, response.getHeaders());
+    }
+  }
+
+  private static void loadSegments(
+      final HttpClient httpClient,
+      final RangeProbe probe,
+      final Path targetFile,
+      final int segmentCount,
+      final ProgressConsumer onProgressConsumer
+  ) throws IOException {
+    final long contentLength = probe.contentLength;
+    final long segmentSize = (contentLength + segmentCount - 1) / segmentCount;
+    final AtomicLong totalRead = new AtomicLong();
+    final Object progressLocker = new Object();
+    final List<HttpGet> requests = new ArrayList<>();
+
+    final AtomicInteger threadCounter = new AtomicInteger();
+    final ExecutorService executor = Executors.newFixedThreadPool(segmentCount, r -> {
+      final Thread thread = new Thread(r, "gosdk-segment-loader-" + threadCounter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    try (final FileChannel channel = FileChannel.open(targetFile, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      // preallocate whole file
+      channel.write(ByteBuffer.wrap(new byte[1]), contentLength - 1L);
+
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < segmentCount; i++) {
+        final long start = i * segmentSize;
+        final long end = Math.min(contentLength, start + segmentSize) - 1L;
+        if (start > end) {
+          break;
+        }
+        final HttpGet request = new HttpGet(probe.uri);
+        request.setHeader(HttpHeaders.RANGE, "bytes=" + start + '-' + end);
+        if (probe.validator != null) {
+          request.setHeader(HttpHeaders.IF_RANGE, probe.validator);
+        }
+        requests.add(request);
+        futures.add(executor.submit(() -> {
+          loadSegment(httpClient, probe.uri, request, channel, start, end, loaded -> {
+            final long total = totalRead.addAndGet(loaded);
+            synchronized (progressLocker) {
+              onProgressConsumer.apply(total, contentLength, (int) ((total * 100) / contentLength));
+            }
+          });
+          return null;
+        }));
+      }
+
+      for (final Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException ex) {
+          requests.forEach(HttpGet::cancel);
+          final Throwable cause = ex.getCause();
+          if (cause instanceof IOException) {
+            throw (IOException) cause;
+          }
+          throw new IOException("Error during segment load", cause);
+        } catch (InterruptedException ex) {
+          requests.forEach(HttpGet::cancel);
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Segmented load has been interrupted");
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    onProgressConsumer.apply(contentLength, contentLength, 100);
+  }
+
+  private static void loadSegment(
+      final HttpClient httpClient,
+      final URI uri,
+      final HttpGet request,
+      final FileChannel channel,
+      final long start,
+      final long end,
+      final LongConsumer loadedConsumer
+  ) throws IOException {
+    try (final ClassicHttpResponse response = httpClient.executeOpen(
+        makeHttpHost(uri), request, HttpClientContext.create())) {
+      if (response.getCode() == HTTP_OK) {
+        throw new RangeNotSupportedException();
+      }
+      if (response.getCode() != HTTP_PARTIAL) {
+        throw new HttpsNotOkStatusException(response.getReasonPhrase(), response.getCode());
+      }
+      final HttpEntity entity = response.getEntity();
+      if (entity == null) {
+        throw new IOException("Empty response for segment " + start + '-' + end);
+      }
+      try (final InputStream inputStream = entity.getContent()) {
+        final byte[] buffer = new byte[SEGMENT_BUFFER_SIZE];
+        long position = start;
+        int bytesRead;
+        while ((bytesRead = inputStream.read(buffer, 0, buffer.length)) != -1) {
+          if (position + bytesRead > end + 1L) {
+            throw new IOException("Segment " + start + '-' + end + " contains extra data");
+          }
+          final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, bytesRead);
+          while (byteBuffer.hasRemaining()) {
+            position += channel.write(byteBuffer, position);
+          }
+          loadedConsumer.accept(bytesRead);
+        }
+        if (position != end + 1L) {
+          throw new IOException(
+              "Segment " + start + '-' + end + " is incomplete, loaded " + (position - start) +
+                  " byte(s)");
+        }
+      }
+    }
+  }
+
   public HttpClient createHttpClient(
       final ProxySettings proxySettings,
       final boolean disableSslCheck,
@@ -307,6 +931,47 @@ public class ApacheHttpClient5Loader {
     }
   }
 
+  /**
+   * Result of load of text resource, can be not modified one for conditional request.
+   */
+  public static final class ConditionalText {
+    private final boolean notModified;
+    private final String text;
+    private final String contentType;
+    private final String etag;
+    private final String lastModified;
+
+    private ConditionalText(final boolean notModified, final String text,
+                            final String contentType, final String etag,
+                            final String lastModified) {
+      this.notModified = notModified;
+      this.text = text;
+      this.contentType = contentType;
+      this.etag = etag;
+      this.lastModified = lastModified;
+    }
+
+    public boolean isNotModified() {
+      return this.notModified;
+    }
+
+    public String getText() {
+      return this.text;
+    }
+
+    public String getContentType() {
+      return this.contentType;
+    }
+
+    public String getEtag() {
+      return this.etag;
+    }
+
+    public String getLastModified() {
+      return this.lastModified;
+    }
+  }
+
   public static class XGoogHashHeader {
 
     private final boolean valid;
@@ -348,7 +1013,6 @@ public class ApacheHttpClient5Loader {
       this.valid = valid;
     }
 
-    @SuppressWarnings("unused")
     public boolean hasData() {
       return this.hasMd5() || this.hasCrc32c();
     }
@@ -377,21 +1041,25 @@ public class ApacheHttpClient5Loader {
     }
 
     public boolean isDataOk(final InputStream in) throws IOException {
+      final ChecksumDigester digester =
+          new ChecksumDigester(this.hasMd5() ? List.of(MD5) : List.of(CRC32C));
+      digester.update(in, Long.MAX_VALUE);
+      return this.isDataOk(digester);
+    }
+
+    /**
+     * Check data through already calculated checksums, MD5 has priority.
+     *
+     * @param digester digester contains calculated MD5 or CRC32C checksum, must not be null
+     * @return true if data is ok, false otherwise
+     * @throws IOException if there is no data to check or the digester doesn't contain needed checksum
+     */
+    public boolean isDataOk(final ChecksumDigester digester) throws IOException {
       if (this.isValid()) {
-        if (this.hasMd5()) {
-          return checkMd5(in, this.getMd5());
-        } else if (this.hasCrc32c()) {
-          final CRC32C crc = new CRC32C();
-          final byte[] buffer = new byte[0x1FFFF];
-          int bytesRead;
-          while ((bytesRead = in.read(buffer, 0, buffer.length)) !=
-              -1) {
-            if (bytesRead > 0) {
-              crc.update(buffer, 0, bytesRead);
-            }
-          }
-          final String thisCrc32 = this.getCrc32c();
-          return thisCrc32 != null && thisCrc32.equalsIgnoreCase(Long.toHexString(crc.getValue()));
+        if (this.hasMd5() && digester.getChecksums().contains(MD5)) {
+          return requireNonNull(this.getMd5()).trim().equalsIgnoreCase(digester.getHex(MD5));
+        } else if (this.hasCrc32c() && digester.getChecksums().contains(CRC32C)) {
+          return requireNonNull(this.getCrc32c()).trim().equalsIgnoreCase(digester.getHex(CRC32C));
         }
         throw new IOException("XGoogHashHeader has neither MD5 nor CRC32 data records");
       } else {
@@ -418,4 +1086,124 @@ public class ApacheHttpClient5Loader {
     }
   }
 
+  private static final class ProgressInputStream extends FilterInputStream {
+    private final long contentLength;
+    private final ProgressConsumer progressConsumer;
+    private long totalRead;
+
+    private ProgressInputStream(final InputStream inputStream, final long contentLength,
+                                final ProgressConsumer progressConsumer) {
+      super(inputStream);
+      this.contentLength = contentLength;
+      this.progressConsumer = progressConsumer;
+    }
+
+    private void onRead(final long bytes) {
+      if (bytes < 0) {
+        this.progressConsumer.apply(this.totalRead, this.contentLength, 100);
+      } else {
+        this.totalRead += bytes;
+        if (this.contentLength > 0) {
+          this.progressConsumer.apply(this.totalRead, this.contentLength,
+              (int) ((this.totalRead * 100) / this.contentLength));
+        } else {
+          this.progressConsumer.apply(this.totalRead, -1, -1);
+        }
+      }
+    }
+
+    @Override
+    public int read() throws IOException {
+      final int result = super.read();
+      this.onRead(result < 0 ? -1 : 1);
+      return result;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      final int result = super.read(b, off, len);
+      if (result != 0) {
+        this.onRead(result);
+      }
+      return result;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+      final long result = super.skip(n);
+      if (result > 0) {
+        this.onRead(result);
+      }
+      return result;
+    }
+  }
+
+  private static final class RangeNotSupportedException extends IOException {
+    private static final long serialVersionUID = -3475120904317592847L;
+
+    private RangeNotSupportedException() {
+      super("Server doesn't support range requests");
+    }
+  }
+
+  private static final class RangeProbe {
+    private final URI uri;
+    private final long contentLength;
+    private final String validator;
+    private final Header[] headers;
+
+    private RangeProbe(final URI uri, final long contentLength, final String validator,
+                       final Header[] headers) {
+      this.uri = uri;
+      this.contentLength = contentLength;
+      this.validator = validator;
+      this.headers = headers;
+    }
+  }
+
+  private static final class ResumeState {
+    private static final String KEY_URI = "uri";
+    private static final String KEY_VALIDATOR = "validator";
+    private static final String KEY_LOADED = "loaded";
+
+    private final String uri;
+    private final String validator;
+    private long loaded;
+
+    private ResumeState(final String uri, final String validator, final long loaded) {
+      this.uri = uri;
+      this.validator = validator;
+      this.loaded = loaded;
+    }
+
+    private static ResumeState load(final Path file) {
+      if (!Files.isRegularFile(file)) {
+        return null;
+      }
+      final Properties properties = new Properties();
+      try (final Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+        properties.load(reader);
+        return new ResumeState(
+            properties.getProperty(KEY_URI),
+            properties.getProperty(KEY_VALIDATOR),
+            Long.parseLong(properties.getProperty(KEY_LOADED, "0"))
+        );
+      } catch (IOException | NumberFormatException ex) {
+        return null;
+      }
+    }
+
+    private void save(final Path file) throws IOException {
+      final Properties properties = new Properties();
+      properties.setProperty(KEY_URI, this.uri);
+      if (this.validator != null) {
+        properties.setProperty(KEY_VALIDATOR, this.validator);
+      }
+      properties.setProperty(KEY_LOADED, Long.toString(this.loaded));
+      try (final Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+        properties.store(writer, "GoSDK archive load state");
+      }
+    }
+  }
+
 }
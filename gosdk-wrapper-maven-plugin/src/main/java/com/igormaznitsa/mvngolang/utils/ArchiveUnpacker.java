@@ -1,28 +1,111 @@
 package com.igormaznitsa.mvngolang.utils;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
-import java.util.zip.GZIPInputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.input.CloseShieldInputStream;
 
 public final class ArchiveUnpacker {
-  public static final ArchiveUnpacker INSTANCE = new ArchiveUnpacker();
+  public static final ArchiveUnpacker INSTANCE =
+      new ArchiveUnpacker(1, StandardGzipDecompressor.DEFAULT, null);
 
-  private ArchiveUnpacker() {
+  /**
+   * Max size of entry which can be passed to writer thread, bigger entries are written by decompressing thread.
+   */
+  private static final int MAX_QUEUED_ENTRY_SIZE = 4 * 1024 * 1024;
+  /**
+   * Max summary size of decompressed entries waiting for writer threads.
+   */
+  private static final int MAX_QUEUED_BYTES = 64 * 1024 * 1024;
+  private static final int ZIP_INFLATE_BUFFER_SIZE = 256 * 1024;
+  private static final AtomicInteger WRITER_THREAD_COUNTER = new AtomicInteger();
+
+  private final int writerThreads;
+  private final GzipDecompressor gzipDecompressor;
+  private final Predicate<String> entryFilter;
+
+  private ArchiveUnpacker(final int writerThreads, final GzipDecompressor gzipDecompressor,
+                          final Predicate<String> entryFilter) {
+    this.writerThreads = writerThreads;
+    this.gzipDecompressor = gzipDecompressor;
+    this.entryFilter = entryFilter;
+  }
+
+  /**
+   * Make unpacker which writes unpacked entries through pool of threads, one thread decompresses
+   * archive and the pool writes files. Memory is bounded by max size of queued entries.
+   *
+   * @param threads number of writer threads, 1 or less means unpack in the calling thread
+   * @return unpacker instance, can be the same instance if the number of threads is the same
+   */
+  public ArchiveUnpacker withWriterThreads(final int threads) {
+    final int normalized = Math.max(1, threads);
+    return normalized == this.writerThreads ? this :
+        new ArchiveUnpacker(normalized, this.gzipDecompressor, this.entryFilter);
+  }
+
+  /**
+   * Make unpacker which uses provided decompressor for TAR_GZ archives.
+   *
+   * @param decompressor GZIP decompressor, must not be null
+   * @return unpacker instance, can be the same instance if the decompressor is the same
+   */
+  public ArchiveUnpacker withGzipDecompressor(final GzipDecompressor decompressor) {
+    return Objects.requireNonNull(decompressor) == this.gzipDecompressor ? this :
+        new ArchiveUnpacker(this.writerThreads, decompressor, this.entryFilter);
   }
 
-  private static ArchiveInputStream<?> createArchiveInputStream(
+  /**
+   * Make unpacker which writes only files accepted by filter, directories are always created.
+   *
+   * @param filter filter of file entry names, null means all files
+   * @return unpacker instance
+   */
+  public ArchiveUnpacker withEntryFilter(final Predicate<String> filter) {
+    return filter == this.entryFilter ? this :
+        new ArchiveUnpacker(this.writerThreads, this.gzipDecompressor, filter);
+  }
+
+  private boolean isAccepted(final ArchiveEntry entry) {
+    return entry.isDirectory() || this.entryFilter == null ||
+        this.entryFilter.test(entry.getName());
+  }
+
+  public int getWriterThreads() {
+    return this.writerThreads;
+  }
+
+  public GzipDecompressor getGzipDecompressor() {
+    return this.gzipDecompressor;
+  }
+
+  private ArchiveInputStream<?> createArchiveInputStream(
       final ArchiveType archiveType,
       final InputStream input
   ) throws ArchiveException, IOException {
@@ -31,7 +114,7 @@ public final class ArchiveUnpacker {
         return new TarArchiveInputStream(input);
       case TAR_GZ:
         return new TarArchiveInputStream(
-            new GZIPInputStream(input));
+            this.gzipDecompressor.decompress(input));
       case ZIP:
         return new ZipArchiveInputStream(input);
       default:
@@ -46,29 +129,32 @@ public final class ArchiveUnpacker {
 
     try (final InputStream fi = new FileInputStream(archiveFile);
          BufferedInputStream bi = new BufferedInputStream(fi)) {
+      return detectArchiveType(bi);
+    }
+  }
 
-      byte[] signature = new byte[8]; // Read first 8 bytes
-      bi.mark(8);
-      int bytesRead = bi.read(signature, 0, 8);
-      bi.reset();
+  private static ArchiveType detectArchiveType(final BufferedInputStream bi) throws IOException {
+    byte[] signature = new byte[8]; // Read first 8 bytes
+    bi.mark(8);
+    int bytesRead = bi.readNBytes(signature, 0, 8);
+    bi.reset();
 
-      if (bytesRead < 4) {
-        return ArchiveType.UNKNOWN;
-      }
+    if (bytesRead < 4) {
+      return ArchiveType.UNKNOWN;
+    }
 
-      if (signature[0] == 0x50 && signature[1] == 0x4B) {
-        return ArchiveType.ZIP;
-      } else if (signature[0] == 0x1F && signature[1] == (byte) 0x8B) {
-        if (isGz(signature)) {
-          return ArchiveType.TAR_GZ;
-        }
-      } else if (isTar(signature)) {
-        return ArchiveType.TAR;
-      } else if (is7z(signature)) {
-        return ArchiveType.Z7;
-      } else if (isRar(signature)) {
-        return ArchiveType.RAR;
+    if (signature[0] == 0x50 && signature[1] == 0x4B) {
+      return ArchiveType.ZIP;
+    } else if (signature[0] == 0x1F && signature[1] == (byte) 0x8B) {
+      if (isGz(signature)) {
+        return ArchiveType.TAR_GZ;
       }
+    } else if (isTar(signature)) {
+      return ArchiveType.TAR;
+    } else if (is7z(signature)) {
+      return ArchiveType.Z7;
+    } else if (isRar(signature)) {
+      return ArchiveType.RAR;
     }
     return ArchiveType.UNKNOWN;
   }
@@ -107,29 +193,239 @@ public final class ArchiveUnpacker {
       throw new ArchiveException("Unknown archive type: " + archiveType);
     }
 
+    if (archiveType == ArchiveType.ZIP) {
+      this.unpackZipFile(archiveFile, outputDir, unpackListener);
+      return;
+    }
+
+    try (final ArchiveInputStream<?> ai = this.createArchiveInputStream(archiveType,
+        new BufferedInputStream(new FileInputStream(archiveFile)))) {
+      this.unpackEntries(ai, outputDir, unpackListener);
+    }
+  }
+
+  /**
+   * Unpack ZIP file through its central directory. ZIP entries are compressed independently so that
+   * if there are several writer threads then entries are read with positional reads and inflated in
+   * parallel.
+   */
+  private void unpackZipFile(final File archiveFile, final File outputDir,
+                             final UnpackListener unpackListener) throws IOException {
+    try (final ZipFile zipFile = ZipFile.builder().setFile(archiveFile).get()) {
+      final List<ZipArchiveEntry> fileEntries = new ArrayList<>();
+      final Enumeration<ZipArchiveEntry> entries = zipFile.getEntriesInPhysicalOrder();
+      while (entries.hasMoreElements()) {
+        final ZipArchiveEntry entry = entries.nextElement();
+        if (!this.isAccepted(entry)) {
+          continue;
+        }
+        if (unpackListener != null) {
+          unpackListener.onArchiveEntry(this, entry);
+        }
+        if (entry.isDirectory()) {
+          Files.createDirectories(new File(outputDir, entry.getName()).toPath());
+        } else {
+          fileEntries.add(entry);
+        }
+      }
+
+      if (this.writerThreads <= 1) {
+        final byte[] buffer = new byte[0x2FFFFF];
+        for (final ZipArchiveEntry entry : fileEntries) {
+          writeZipEntry(zipFile, entry, outputDir, buffer);
+        }
+      } else {
+        final ExecutorService inflaters = this.makeWriterPool();
+        try {
+          final ThreadLocal<byte[]> buffers =
+              ThreadLocal.withInitial(() -> new byte[ZIP_INFLATE_BUFFER_SIZE]);
+          final List<Future<?>> futures = new ArrayList<>(fileEntries.size());
+          for (final ZipArchiveEntry entry : fileEntries) {
+            futures.add(inflaters.submit(() -> {
+              writeZipEntry(zipFile, entry, outputDir, buffers.get());
+              return null;
+            }));
+          }
+          for (final Future<?> future : futures) {
+            try {
+              future.get();
+            } catch (InterruptedException ex) {
+              Thread.currentThread().interrupt();
+              throw new InterruptedIOException("Interrupted during unpack");
+            } catch (ExecutionException ex) {
+              if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+              }
+              throw new IOException("Error during unpack of ZIP entry", ex.getCause());
+            }
+          }
+        } finally {
+          inflaters.shutdownNow();
+        }
+      }
+    }
+  }
+
+  private static void writeZipEntry(final ZipFile zipFile, final ZipArchiveEntry entry,
+                                    final File outputDir, final byte[] buffer)
+      throws IOException {
+    final File outputFile = new File(outputDir, entry.getName());
+    Files.createDirectories(outputFile.getParentFile().toPath());
+    try (final InputStream inputStream = zipFile.getInputStream(entry)) {
+      writeEntry(inputStream, outputFile, buffer);
+    }
+  }
+
+  private ExecutorService makeWriterPool() {
+    // platform threads are used intentionally: writers inflate and write data so they are bound by
+    // CPU and disk, size of the pool is the parallelism limit and virtual threads would not add
+    // anything, unlike for process pumps in ProcessIoExecutor which are blocked by pipes most time
+    return Executors.newFixedThreadPool(this.writerThreads, r -> {
+      final Thread thread =
+          new Thread(r, "gosdk-unpack-writer-" + WRITER_THREAD_COUNTER.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Unpack archive directly from stream, the archive type is detected by stream signature. Entries
+   * are written while the stream is read so that it allows to unpack data during download.
+   * The provided stream is not closed and can contain unread tail data after the archive end.
+   *
+   * @param archiveStream  stream contains archive, must not be null
+   * @param outputDir      folder to unpack archive
+   * @param unpackListener listener of unpack process, can be null
+   * @throws IOException      if any IO error
+   * @throws ArchiveException if unknown or wrong archive format
+   */
+  public void unpackArchive(final InputStream archiveStream, final File outputDir,
+                            final UnpackListener unpackListener)
+      throws IOException, ArchiveException {
+    if (!outputDir.exists() && !outputDir.mkdirs()) {
+      throw new IOException("Failed to create output directory: " + outputDir);
+    }
+
+    final BufferedInputStream bufferedStream =
+        new BufferedInputStream(CloseShieldInputStream.wrap(archiveStream), 0x10000);
+    final ArchiveType archiveType = detectArchiveType(bufferedStream);
+    if (unpackListener != null) {
+      unpackListener.onArchiveType(this, archiveType);
+    }
+    if (archiveType == ArchiveType.UNKNOWN) {
+      throw new ArchiveException("Unknown archive type: " + archiveType);
+    }
+
+    try (final ArchiveInputStream<?> ai = this.createArchiveInputStream(archiveType, bufferedStream)) {
+      this.unpackEntries(ai, outputDir, unpackListener);
+    }
+  }
+
+  private void unpackEntries(final ArchiveInputStream<?> ai, final File outputDir,
+                             final UnpackListener unpackListener) throws IOException {
+    if (this.writerThreads > 1) {
+      this.unpackEntriesConcurrently(ai, outputDir, unpackListener);
+      return;
+    }
     final byte[] buffer = new byte[0x2FFFFF];
-    try (final ArchiveInputStream<?> ai = createArchiveInputStream(archiveType, new BufferedInputStream(new FileInputStream(archiveFile)))) {
+    ArchiveEntry entry;
+    while ((entry = ai.getNextEntry()) != null) {
+      if (!this.isAccepted(entry)) {
+        continue;
+      }
+      if (unpackListener != null) {
+        unpackListener.onArchiveEntry(this, entry);
+      }
+      final File outputFile = new File(outputDir, entry.getName());
+      if (entry.isDirectory()) {
+        if (!outputFile.exists() && !outputFile.mkdirs()) {
+          throw new IOException("Failed to create directory: " + outputFile);
+        }
+      } else {
+        Files.createDirectories(outputFile.getParentFile().toPath());
+        writeEntry(ai, outputFile, buffer);
+      }
+    }
+  }
+
+  private static void writeEntry(final InputStream inputStream, final File outputFile,
+                                 final byte[] buffer) throws IOException {
+    try (OutputStream os = new FileOutputStream(outputFile)) {
+      int length;
+      while ((length = inputStream.read(buffer)) != -1) {
+        os.write(buffer, 0, length);
+      }
+    }
+  }
+
+  private void unpackEntriesConcurrently(final ArchiveInputStream<?> ai, final File outputDir,
+                                         final UnpackListener unpackListener)
+      throws IOException {
+    final ExecutorService writers = this.makeWriterPool();
+    final Semaphore queuedBytes = new Semaphore(MAX_QUEUED_BYTES);
+    final AtomicReference<Throwable> writeError = new AtomicReference<>();
+    try {
+      final byte[] buffer = new byte[MAX_QUEUED_ENTRY_SIZE];
       ArchiveEntry entry;
       while ((entry = ai.getNextEntry()) != null) {
+        checkWriteError(writeError);
+        if (!this.isAccepted(entry)) {
+          continue;
+        }
         if (unpackListener != null) {
           unpackListener.onArchiveEntry(this, entry);
         }
         final File outputFile = new File(outputDir, entry.getName());
         if (entry.isDirectory()) {
-          if (!outputFile.exists() && !outputFile.mkdirs()) {
-            throw new IOException("Failed to create directory: " + outputFile);
-          }
+          Files.createDirectories(outputFile.toPath());
         } else {
           Files.createDirectories(outputFile.getParentFile().toPath());
-          try (OutputStream os = new BufferedOutputStream(new FileOutputStream(outputFile),
-              buffer.length)) {
-            int length;
-            while ((length = ai.read(buffer)) != -1) {
-              os.write(buffer, 0, length);
+          final long size = entry.getSize();
+          if (size < 0 || size > MAX_QUEUED_ENTRY_SIZE) {
+            writeEntry(ai, outputFile, buffer);
+          } else {
+            final byte[] data = ai.readNBytes((int) size);
+            final int permits = Math.max(1, data.length);
+            try {
+              queuedBytes.acquire(permits);
+            } catch (InterruptedException ex) {
+              Thread.currentThread().interrupt();
+              throw new InterruptedIOException("Interrupted during unpack");
             }
+            writers.execute(() -> {
+              try {
+                Files.write(outputFile.toPath(), data);
+              } catch (Throwable ex) {
+                writeError.compareAndSet(null, ex);
+              } finally {
+                queuedBytes.release(permits);
+              }
+            });
           }
         }
       }
+      writers.shutdown();
+      try {
+        while (!writers.awaitTermination(1, TimeUnit.SECONDS)) {
+          checkWriteError(writeError);
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted during unpack");
+      }
+      checkWriteError(writeError);
+    } finally {
+      writers.shutdownNow();
+    }
+  }
+
+  private static void checkWriteError(final AtomicReference<Throwable> writeError)
+      throws IOException {
+    final Throwable error = writeError.get();
+    if (error instanceof IOException) {
+      throw (IOException) error;
+    } else if (error != null) {
+      throw new IOException("Error during write of unpacked entry", error);
     }
   }
 
@@ -0,0 +1,233 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import com.igormaznitsa.mvngolang.GoRecordChecksum;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32C;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Calculates several checksums in one pass over data, allows to check downloaded data without
+ * re-reading it.
+ */
+public final class ChecksumDigester {
+
+  private static final int FILE_BUFFER_SIZE = 1024 * 1024;
+
+  private final Map<GoRecordChecksum, MessageDigest> digests =
+      new EnumMap<>(GoRecordChecksum.class);
+  private final Map<GoRecordChecksum, String> results = new EnumMap<>(GoRecordChecksum.class);
+  private final CRC32C crc32c;
+  private long length;
+
+  public ChecksumDigester(final Collection<GoRecordChecksum> checksums) {
+    CRC32C crc = null;
+    for (final GoRecordChecksum checksum : checksums) {
+      switch (checksum) {
+        case MD5:
+          this.digests.put(checksum, DigestUtils.getMd5Digest());
+          break;
+        case SHA256:
+          this.digests.put(checksum, DigestUtils.getSha256Digest());
+          break;
+        case CRC32C:
+          crc = new CRC32C();
+          break;
+        default:
+          throw new Error("Unexpected checksum: " + checksum);
+      }
+    }
+    this.crc32c = crc;
+  }
+
+  /**
+   * Make digester and feed it by whole file content.
+   *
+   * @param file      file to be processed, must not be null
+   * @param checksums checksums to be calculated
+   * @return digester contains result for the file
+   * @throws IOException if any IO error
+   */
+  public static ChecksumDigester digest(final Path file,
+                                        final Collection<GoRecordChecksum> checksums)
+      throws IOException {
+    final ChecksumDigester result = new ChecksumDigester(checksums);
+    try (final InputStream inputStream = Files.newInputStream(file)) {
+      result.update(inputStream, Long.MAX_VALUE);
+    }
+    return result;
+  }
+
+  /**
+   * Feed digester by data from stream.
+   *
+   * @param inputStream source stream, must not be null
+   * @param maxLength   max number of bytes to be read from the stream
+   * @return number of read bytes
+   * @throws IOException if any IO error
+   */
+  public long update(final InputStream inputStream, final long maxLength) throws IOException {
+    final byte[] buffer = new byte[FILE_BUFFER_SIZE];
+    long counter = 0L;
+    while (counter < maxLength) {
+      final int read =
+          inputStream.read(buffer, 0, (int) Math.min(buffer.length, maxLength - counter));
+      if (read < 0) {
+        break;
+      }
+      this.update(buffer, 0, read);
+      counter += read;
+    }
+    return counter;
+  }
+
+  /**
+   * Copy data from input stream into output stream and feed digester by the data.
+   *
+   * @param inputStream  source stream, must not be null
+   * @param outputStream destination stream, must not be null
+   * @return number of copied bytes
+   * @throws IOException if any IO error
+   */
+  public long transfer(final InputStream inputStream, final OutputStream outputStream)
+      throws IOException {
+    final byte[] buffer = new byte[FILE_BUFFER_SIZE];
+    long counter = 0L;
+    int read;
+    while ((read = inputStream.read(buffer, 0, buffer.length)) >= 0) {
+      outputStream.write(buffer, 0, read);
+      this.update(buffer, 0, read);
+      counter += read;
+    }
+    return counter;
+  }
+
+  /**
+   * Wrap input stream to feed digester by all data read through the wrapper, skipped data is
+   * read and digested too.
+   *
+   * @param inputStream source stream, must not be null
+   * @return wrapping stream, closing of the wrapper closes the source stream
+   */
+  public InputStream wrap(final InputStream inputStream) {
+    return new FilterInputStream(inputStream) {
+      @Override
+      public int read() throws IOException {
+        final int result = super.read();
+        if (result >= 0) {
+          update(new byte[] {(byte) result}, 0, 1);
+        }
+        return result;
+      }
+
+      @Override
+      public int read(final byte[] b, final int off, final int len) throws IOException {
+        final int result = super.read(b, off, len);
+        if (result > 0) {
+          update(b, off, result);
+        }
+        return result;
+      }
+
+      @Override
+      public long skip(final long n) throws IOException {
+        final byte[] buffer = new byte[(int) Math.max(1L, Math.min(n, 8192L))];
+        long skipped = 0L;
+        while (skipped < n) {
+          final int read = this.read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+          if (read < 0) {
+            break;
+          }
+          skipped += read;
+        }
+        return skipped;
+      }
+
+      @Override
+      public boolean markSupported() {
+        return false;
+      }
+    };
+  }
+
+  public void update(final byte[] data, final int offset, final int length) {
+    if (!this.results.isEmpty()) {
+      throw new IllegalStateException("Digest is already completed");
+    }
+    for (final MessageDigest digest : this.digests.values()) {
+      digest.update(data, offset, length);
+    }
+    if (this.crc32c != null) {
+      this.crc32c.update(data, offset, length);
+    }
+    this.length += length;
+  }
+
+  /**
+   * Reset digester to initial state.
+   */
+  public void reset() {
+    this.digests.values().forEach(MessageDigest::reset);
+    if (this.crc32c != null) {
+      this.crc32c.reset();
+    }
+    this.results.clear();
+    this.length = 0L;
+  }
+
+  /**
+   * Get number of processed bytes.
+   *
+   * @return number of bytes passed through the digester
+   */
+  public long getLength() {
+    return this.length;
+  }
+
+  public Set<GoRecordChecksum> getChecksums() {
+    final Set<GoRecordChecksum> result = EnumSet.noneOf(GoRecordChecksum.class);
+    result.addAll(this.digests.keySet());
+    if (this.crc32c != null) {
+      result.add(GoRecordChecksum.CRC32C);
+    }
+    return result;
+  }
+
+  /**
+   * Get hex representation of calculated checksum, completes calculation.
+   *
+   * @param checksum checksum type
+   * @return lower-case hex string
+   * @throws IllegalArgumentException if the checksum is not calculated by the digester
+   */
+  public String getHex(final GoRecordChecksum checksum) {
+    String result = this.results.get(checksum);
+    if (result == null) {
+      if (checksum == GoRecordChecksum.CRC32C) {
+        if (this.crc32c == null) {
+          throw new IllegalArgumentException("Not calculated checksum: " + checksum);
+        }
+        result = String.format("%08x", this.crc32c.getValue());
+      } else {
+        final MessageDigest digest = this.digests.get(checksum);
+        if (digest == null) {
+          throw new IllegalArgumentException("Not calculated checksum: " + checksum);
+        }
+        result = Hex.encodeHexString(digest.digest());
+      }
+      this.results.put(checksum, result);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,241 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import static com.igormaznitsa.mvngolang.GoRecordChecksum.SHA256;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Store of files keyed by their SHA-256, files of SDK folders are replaced by hard links to the
+ * store blobs so that the same file content shared by several SDK versions is kept on disk only
+ * once. Blobs are placed as {@code <root>/<first two hex chars>/<sha256>}.
+ */
+public final class ContentAddressedStore {
+
+  public static final String FOLDER_NAME = ".cas";
+
+  private final Path root;
+  private final Set<String> verifiedBlobs = new HashSet<>();
+
+  public ContentAddressedStore(final Path root) {
+    this.root = root;
+  }
+
+  public Path getRoot() {
+    return this.root;
+  }
+
+  public Path findBlob(final String sha256) {
+    return this.root.resolve(sha256.substring(0, 2)).resolve(sha256);
+  }
+
+  /**
+   * Replace all regular files in folder by hard links to store blobs. New content is added into
+   * the store as a hard link, files with known content are replaced by links to existing blobs. If
+   * file system doesn't support hard links then processing is stopped and the rest of files is kept
+   * as is. Linked file gets attributes of the blob inode (like modification time) so that any
+   * snapshot of file attributes should be made after the call.
+   * <p>
+   * Existing blob is shared by other SDK folders so its content is verified by SHA-256 (once per
+   * store instance) before linking, damaged blob is replaced by the file. Files which permissions
+   * differ from the blob are kept as separate copies to not change permissions of shared inode.
+   *
+   * @param folder folder to be processed, must be on the same file store as the store
+   * @return statistics of the operation
+   * @throws IOException if any IO error
+   */
+  public Result materialize(final Path folder) throws IOException {
+    final List<Path> files;
+    try (final Stream<Path> stream = Files.walk(folder)) {
+      files = stream.filter(x -> Files.isRegularFile(x, LinkOption.NOFOLLOW_LINKS))
+          .collect(Collectors.toList());
+    }
+    int stored = 0;
+    int linked = 0;
+    long savedBytes = 0L;
+    for (final Path file : files) {
+      final long size = Files.size(file);
+      final String sha256 = ChecksumDigester.digest(file, List.of(SHA256)).getHex(SHA256);
+      final Path blob = this.findBlob(sha256);
+      try {
+        if (this.store(file, blob)) {
+          this.verifiedBlobs.add(sha256);
+          stored++;
+        } else if (!this.isValidBlob(blob, sha256, size)) {
+          // damaged blob, already linked files keep the damaged content and must be repaired
+          // through their own integrity check
+          replaceByLink(blob, file);
+          this.verifiedBlobs.add(sha256);
+          stored++;
+        } else if (isSameMode(file, blob)) {
+          replaceByLink(file, blob);
+          linked++;
+          savedBytes += size;
+        }
+      } catch (UnsupportedOperationException ex) {
+        return new Result(files.size(), stored, linked, savedBytes, false);
+      }
+    }
+    return new Result(files.size(), stored, linked, savedBytes, true);
+  }
+
+  /**
+   * Add file into store as hard link, the file itself becomes the blob.
+   *
+   * @return true if the file has been added into the store, false if the blob has been created
+   * concurrently and the file should be linked to it
+   * @throws UnsupportedOperationException if hard links are not supported by file system
+   */
+  private boolean store(final Path file, final Path blob) throws IOException {
+    Files.createDirectories(blob.getParent());
+    try {
+      Files.createLink(blob, file);
+    } catch (FileAlreadyExistsException ex) {
+      return false;
+    } catch (FileSystemException ex) {
+      throw new UnsupportedOperationException("Can't create hard link: " + ex.getMessage(), ex);
+    }
+    return true;
+  }
+
+  /**
+   * Atomically replace file by hard link to another file.
+   *
+   * @param target file to be replaced
+   * @param source file to be linked
+   */
+  private static void replaceByLink(final Path target, final Path source) throws IOException {
+    final Path tempLink = target.resolveSibling(target.getFileName() + ".caslink");
+    Files.deleteIfExists(tempLink);
+    try {
+      Files.createLink(tempLink, source);
+    } catch (FileSystemException ex) {
+      // for instance, too many links to the source, keep the target as is
+      return;
+    }
+    try {
+      Files.move(tempLink, target, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tempLink);
+    }
+  }
+
+  private boolean isValidBlob(final Path blob, final String sha256, final long size)
+      throws IOException {
+    if (this.verifiedBlobs.contains(sha256)) {
+      return true;
+    }
+    if (!Files.isRegularFile(blob, LinkOption.NOFOLLOW_LINKS) || Files.size(blob) != size) {
+      return false;
+    }
+    final boolean valid =
+        sha256.equals(ChecksumDigester.digest(blob, List.of(SHA256)).getHex(SHA256));
+    if (valid) {
+      this.verifiedBlobs.add(sha256);
+    }
+    return valid;
+  }
+
+  private static boolean isSameMode(final Path file, final Path blob) {
+    try {
+      return Files.getPosixFilePermissions(file, LinkOption.NOFOLLOW_LINKS)
+          .equals(Files.getPosixFilePermissions(blob, LinkOption.NOFOLLOW_LINKS));
+    } catch (UnsupportedOperationException | IOException ex) {
+      // non-POSIX file system
+      return Files.isExecutable(file) == Files.isExecutable(blob);
+    }
+  }
+
+  /**
+   * Delete blobs which are not linked from any SDK folder anymore, the blob link count is used to
+   * detect them. Nothing is deleted if the file system doesn't provide link count.
+   *
+   * @return number of freed bytes
+   * @throws IOException if any IO error
+   */
+  public long collectGarbage() throws IOException {
+    if (!Files.isDirectory(this.root)) {
+      return 0L;
+    }
+    final List<Path> blobs;
+    try (final Stream<Path> stream = Files.walk(this.root, 2)) {
+      blobs = stream.filter(x -> Files.isRegularFile(x, LinkOption.NOFOLLOW_LINKS))
+          .collect(Collectors.toList());
+    }
+    long freed = 0L;
+    for (final Path blob : blobs) {
+      final int links;
+      try {
+        links = (Integer) Files.getAttribute(blob, "unix:nlink", LinkOption.NOFOLLOW_LINKS);
+      } catch (UnsupportedOperationException | IllegalArgumentException ex) {
+        return freed;
+      }
+      if (links <= 1) {
+        final long size = Files.size(blob);
+        if (Files.deleteIfExists(blob)) {
+          freed += size;
+        }
+      }
+    }
+    return freed;
+  }
+
+  public static final class Result {
+    private final int files;
+    private final int stored;
+    private final int linked;
+    private final long savedBytes;
+    private final boolean completed;
+
+    private Result(final int files, final int stored, final int linked, final long savedBytes,
+                   final boolean completed) {
+      this.files = files;
+      this.stored = stored;
+      this.linked = linked;
+      this.savedBytes = savedBytes;
+      this.completed = completed;
+    }
+
+    public int getFiles() {
+      return this.files;
+    }
+
+    public int getStored() {
+      return this.stored;
+    }
+
+    public int getLinked() {
+      return this.linked;
+    }
+
+    public long getSavedBytes() {
+      return this.savedBytes;
+    }
+
+    /**
+     * Check that all files have been processed.
+     *
+     * @return false if the file system doesn't support hard links and processing was stopped
+     */
+    public boolean isCompleted() {
+      return this.completed;
+    }
+
+    @Override
+    public String toString() {
+      return "files=" + this.files + ", stored=" + this.stored + ", linked=" + this.linked +
+          ", savedBytes=" + this.savedBytes + ", completed=" + this.completed;
+    }
+  }
+}
@@ -2,9 +2,11 @@ package com.igormaznitsa.mvngolang.utils;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.DosFileAttributeView;
 import java.nio.file.attribute.PosixFilePermission;
 import java.util.Locale;
@@ -98,4 +100,42 @@ public final class FileUtils {
       throws IOException {
     makeWritable(path, followSymlinks ? LINK_OPTIONS_EMPTY : LINK_OPTIONS_NO_FOLLOW_LINKS);
   }
+
+  /**
+   * Move folder to new location, atomic rename is tried first, then plain rename and recursive copy
+   * with deletion of source if the folder can't be renamed (for instance target is on another file
+   * system).
+   *
+   * @param source source folder, must not be null
+   * @param target target path, must not exist
+   * @return the way how the folder has been moved
+   * @throws IOException if the folder can't be moved
+   */
+  public static MoveResult moveFolder(final Path source, final Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+      return MoveResult.ATOMIC_RENAME;
+    } catch (AtomicMoveNotSupportedException ex) {
+      // try plain rename
+    }
+    try {
+      Files.move(source, target);
+      return MoveResult.RENAME;
+    } catch (IOException ex) {
+      if (Files.exists(target, LINK_OPTIONS_NO_FOLLOW_LINKS) || !Files.isDirectory(source)) {
+        throw ex;
+      }
+    }
+    org.apache.commons.io.FileUtils.moveDirectory(source.toFile(), target.toFile());
+    return MoveResult.COPY;
+  }
+
+  /**
+   * Way how a folder has been moved.
+   */
+  public enum MoveResult {
+    ATOMIC_RENAME,
+    RENAME,
+    COPY
+  }
 }
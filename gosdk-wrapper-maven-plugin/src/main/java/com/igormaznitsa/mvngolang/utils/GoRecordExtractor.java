@@ -4,41 +4,34 @@ import static com.igormaznitsa.mvngolang.GoRecordChecksum.MD5;
 import static com.igormaznitsa.mvngolang.GoRecordChecksum.SHA256;
 import static com.igormaznitsa.mvngolang.utils.FileUtils.isHttpOrHttps;
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.Stream.concat;
+import static java.util.stream.Collectors.toSet;
 
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.igormaznitsa.mvngolang.GoRecord;
 import com.igormaznitsa.mvngolang.GoRecordChecksum;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Attribute;
 import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
 import org.jsoup.select.Elements;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-import org.xml.sax.ErrorHandler;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-import org.xml.sax.SAXParseException;
 
 public class GoRecordExtractor {
 
@@ -49,6 +42,8 @@ public class GoRecordExtractor {
   private static final Pattern SHA256PATTERN = Pattern.compile("\\b([A-Fa-f0-9]{64})\\b");
   private static final Pattern MD5PATTERN = Pattern.compile("\\b([A-Fa-f0-9]{32})\\b");
 
+  private static final int SNIFF_HEAD_LENGTH = 1024;
+
   private static final GoRecordExtractor INSTANCE = new GoRecordExtractor();
 
   private GoRecordExtractor() {
@@ -81,270 +76,420 @@ public class GoRecordExtractor {
     return Optional.empty();
   }
 
-  protected static Optional<List<GoRecord>> tryAsPlainText(final String baseUrl,
-                                                           final String text) {
-    try {
-      final Map<String, List<GoRecord.GoFile>> records = new HashMap<>();
-      text.lines().map(String::trim).filter(x -> !x.isBlank() && !x.startsWith("#"))
-          .forEach(x -> {
-            final String[] split = x.split(",");
-            final String fileName;
-            final String fileLink;
-            final String checksum;
-            if (split.length == 3) {
-              fileName = split[0].trim();
-              fileLink = split[1].trim();
-              checksum = split[2].trim();
-            } else if (split.length == 2) {
-              fileName = split[0].trim();
-              fileLink = split[1].trim();
-              checksum = null;
-            } else {
-              throw new IllegalArgumentException("Wrong line: " + x);
-            }
+  static void scanPlainText(final String baseUrl, final String text,
+                            final GoFileVisitor visitor) {
+    final Iterator<String> lines = text.lines().iterator();
+    while (lines.hasNext()) {
+      final String line = lines.next().trim();
+      if (line.isBlank() || line.startsWith("#")) {
+        continue;
+      }
+      final String[] split = line.split(",");
+      final String fileName;
+      final String fileLink;
+      final String checksum;
+      if (split.length == 3) {
+        fileName = split[0].trim();
+        fileLink = split[1].trim();
+        checksum = split[2].trim();
+      } else if (split.length == 2) {
+        fileName = split[0].trim();
+        fileLink = split[1].trim();
+        checksum = null;
+      } else {
+        throw new IllegalArgumentException("Wrong line: " + line);
+      }
 
-            final Matcher nameMatcher = SDK_NAME_PATTERN.matcher(fileName);
-            final String goSdkVersion;
-            if (nameMatcher.find()) {
-              goSdkVersion = nameMatcher.group(1);
-            } else {
-              throw new IllegalArgumentException("Non-golang sdk file name: " + fileName);
-            }
+      final Matcher nameMatcher = SDK_NAME_PATTERN.matcher(fileName);
+      final String goSdkVersion;
+      if (nameMatcher.find()) {
+        goSdkVersion = nameMatcher.group(1);
+      } else {
+        throw new IllegalArgumentException("Non-golang sdk file name: " + fileName);
+      }
 
-            final Map<GoRecordChecksum, String> checksumMap;
-            if (checksum != null) {
-              final Matcher checksumSha256 = SHA256PATTERN.matcher(checksum);
-              final Matcher checksumMd5 = MD5PATTERN.matcher(checksum);
-              if (checksumSha256.find()) {
-                checksumMap = Map.of(SHA256, checksumSha256.group(1));
-              } else if (checksumMd5.find()) {
-                checksumMap = Map.of(MD5, checksumMd5.group(1));
-              } else {
-                throw new IllegalArgumentException(
-                    "Unexpected checksum format, expected SHA256 or MD5: " + checksumSha256);
-              }
-            } else {
-              checksumMap = Map.of();
-            }
+      final Map<GoRecordChecksum, String> checksumMap;
+      if (checksum != null) {
+        final Matcher checksumSha256 = SHA256PATTERN.matcher(checksum);
+        final Matcher checksumMd5 = MD5PATTERN.matcher(checksum);
+        if (checksumSha256.find()) {
+          checksumMap = Map.of(SHA256, checksumSha256.group(1));
+        } else if (checksumMd5.find()) {
+          checksumMap = Map.of(MD5, checksumMd5.group(1));
+        } else {
+          throw new IllegalArgumentException(
+              "Unexpected checksum format, expected SHA256 or MD5: " + checksumSha256);
+        }
+      } else {
+        checksumMap = Map.of();
+      }
 
-            final GoRecord.GoFile fileRecord =
-                new GoRecord.GoFile(
-                    fileName,
-                    concatUrl(baseUrl, fileLink),
-                    checksumMap);
-
-            records.merge(goSdkVersion, List.of(fileRecord),
-                (a, b) -> concat(a.stream(), b.stream()).collect(toList()));
-          });
-
-      return Optional.of(records.entrySet().stream()
-          .map(e -> new GoRecord(e.getKey(), e.getValue()))
-          .sorted(Comparator.comparing(GoRecord::getName))
-          .collect(toList()));
-    } catch (Exception c) {
-      return Optional.empty();
+      if (!visitor.visit(goSdkVersion,
+          new GoRecord.GoFile(fileName, concatUrl(baseUrl, fileLink), checksumMap))) {
+        return;
+      }
     }
   }
 
-  protected static Optional<List<GoRecord>> tryAsSdkSiteHtml(final String baseUrl,
-                                                             final String text) {
-    try {
-      final org.jsoup.nodes.Document document = Jsoup.parse(text, baseUrl, Parser.htmlParser());
-      final Elements trTags = document.getElementsByTag("tr");
-      final Map<String, List<GoRecord.GoFile>> records = new HashMap<>();
-      for (final org.jsoup.nodes.Element tr : trTags) {
-        String name = null;
-        String fileName = null;
-        String fileLink = null;
-        String sha256 = null;
-        String md5 = null;
-        final Elements tdTags = tr.getElementsByTag("td");
-        for (final org.jsoup.nodes.Element td : tdTags) {
-          if (tr.equals(td.parent())) {
-            final String fullText = td.text();
-            final Matcher sha256Matcher = SHA256PATTERN.matcher(fullText);
-            final Matcher md5Matcher = MD5PATTERN.matcher(fullText);
-            if (sha256Matcher.find()) {
-              sha256 = sha256Matcher.group(1);
-            } else if (md5Matcher.matches()) {
-              md5 = md5Matcher.group(1);
-            }
-            final Elements anchors = td.getElementsByTag("a");
-            for (final org.jsoup.nodes.Element anchor : anchors) {
-              final String anchorText = anchor.ownText().trim();
-              final Matcher matcher = SDK_NAME_PATTERN.matcher(anchorText);
-              if (matcher.find()) {
-                name = matcher.group(1);
-                fileName = anchorText;
-                final Attribute href = anchor.attribute("href");
-                if (href != null) {
-                  fileLink = concatUrl(baseUrl, href.getValue());
-                }
-              }
-            }
+  /**
+   * Scan HTML page of GoSDK site. The page is parsed by stream parser, every table row is visited as
+   * soon as it is closed and removed from the document after processing so that parsing can be
+   * stopped by visitor without building whole document.
+   */
+  static void scanSdkSiteHtml(final String baseUrl, final String text,
+                              final GoFileVisitor visitor) {
+    try (final StreamParser streamParser =
+             new StreamParser(Parser.htmlParser()).parse(text, baseUrl)) {
+      final Iterator<org.jsoup.nodes.Element> elements = streamParser.iterator();
+      while (elements.hasNext()) {
+        final org.jsoup.nodes.Element element = elements.next();
+        if ("tr".equals(element.normalName())) {
+          final boolean next = visitSdkSiteRow(baseUrl, element, visitor);
+          element.remove();
+          if (!next) {
+            streamParser.stop();
+            return;
           }
         }
+      }
+    }
+  }
 
-        if (name != null && fileLink != null) {
-          final Map<GoRecordChecksum, String> checksumStringMap = new HashMap<>();
-          if (sha256 != null) {
-            checksumStringMap.put(SHA256, sha256);
-          }
-          if (md5 != null) {
-            checksumStringMap.put(MD5, md5);
+  private static boolean visitSdkSiteRow(final String baseUrl, final org.jsoup.nodes.Element tr,
+                                         final GoFileVisitor visitor) {
+    String name = null;
+    String fileName = null;
+    String fileLink = null;
+    String sha256 = null;
+    String md5 = null;
+    final Elements tdTags = tr.getElementsByTag("td");
+    for (final org.jsoup.nodes.Element td : tdTags) {
+      if (tr.equals(td.parent())) {
+        final String fullText = td.text();
+        final Matcher sha256Matcher = SHA256PATTERN.matcher(fullText);
+        final Matcher md5Matcher = MD5PATTERN.matcher(fullText);
+        if (sha256Matcher.find()) {
+          sha256 = sha256Matcher.group(1);
+        } else if (md5Matcher.matches()) {
+          md5 = md5Matcher.group(1);
+        }
+        final Elements anchors = td.getElementsByTag("a");
+        for (final org.jsoup.nodes.Element anchor : anchors) {
+          final String anchorText = anchor.ownText().trim();
+          final Matcher matcher = SDK_NAME_PATTERN.matcher(anchorText);
+          if (matcher.find()) {
+            name = matcher.group(1);
+            fileName = anchorText;
+            final Attribute href = anchor.attribute("href");
+            if (href != null) {
+              fileLink = concatUrl(baseUrl, href.getValue());
+            }
           }
-          final GoRecord.GoFile nextFile =
-              new GoRecord.GoFile(fileName, fileLink, Map.copyOf(checksumStringMap));
-          records.merge(name, List.of(nextFile),
-              (a, b) -> concat(a.stream(), b.stream()).collect(toList()));
         }
       }
+    }
 
-      return Optional.of(records.entrySet().stream()
-          .map(e -> new GoRecord(e.getKey(), e.getValue()))
-          .sorted(Comparator.comparing(GoRecord::getName))
-          .collect(toList()));
-
-    } catch (Exception ex) {
-      return Optional.empty();
+    if (name != null && fileLink != null) {
+      final Map<GoRecordChecksum, String> checksumStringMap = new HashMap<>();
+      if (sha256 != null) {
+        checksumStringMap.put(SHA256, sha256);
+      }
+      if (md5 != null) {
+        checksumStringMap.put(MD5, md5);
+      }
+      return visitor.visit(name, new GoRecord.GoFile(fileName, fileLink, checksumStringMap));
     }
+    return true;
   }
 
-  protected static Optional<List<GoRecord>> tryAsGoogleApisXml(final String baseUri,
-                                                               final String text) {
-    try {
-      final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-      final DocumentBuilder builder = factory.newDocumentBuilder();
-      builder.setErrorHandler(new ErrorHandler() {
-        @Override
-        public void warning(SAXParseException exception) throws SAXException {
-          // do nothing
-        }
+  static void scanGoogleApisXml(final String baseUri, final String text,
+                                final GoFileVisitor visitor) throws IOException {
+    scanGoogleApisXml(baseUri, new StringReader(text), visitor);
+  }
 
-        @Override
-        public void error(SAXParseException exception) throws SAXException {
-          // do nothing
+  /**
+   * Stream Google Storage ListBucketResult page and provide found GoSDK files to visitor.
+   *
+   * @param baseUri base URI to make file links, can be null
+   * @param reader  reader of the listing page, must not be null
+   * @param visitor visitor of found files, must not be null
+   * @return parsed page info
+   * @throws IOException if the page can't be parsed
+   */
+  public static ListBucketStreamParser.Page scanGoogleApisXml(
+      final String baseUri,
+      final Reader reader,
+      final GoFileVisitor visitor) throws IOException {
+    return ListBucketStreamParser.parse(reader, (key, etag) -> {
+      final Matcher matcher = SDK_NAME_PATTERN.matcher(key);
+      if (matcher.find()) {
+        String md5 = null;
+        if (etag != null) {
+          final Matcher md5matcher = MD5PATTERN.matcher(etag);
+          if (md5matcher.find()) {
+            md5 = md5matcher.group(1);
+          }
         }
+        return visitor.visit(matcher.group(1), new GoRecord.GoFile(key, concatUrl(baseUri, key),
+            md5 == null ? Map.of() : Map.of(MD5, md5)));
+      }
+      return true;
+    });
+  }
 
-        @Override
-        public void fatalError(SAXParseException exception) throws SAXException {
-          // do nothing
-        }
-      });
-      final Document document = builder.parse(new InputSource(new StringReader(text)));
-
-      final Map<String, List<GoRecord.GoFile>> recordMap = new HashMap<>();
-
-      final Element root = document.getDocumentElement();
-      if ("ListBucketResult".equals(root.getTagName())) {
-        final NodeList list = root.getElementsByTagName("Contents");
-        for (int i = 0; i < list.getLength(); i++) {
-          final Element element = (Element) list.item(i);
-          final NodeList keys = element.getElementsByTagName("Key");
-          final NodeList eTags = element.getElementsByTagName("ETag");
-
-          if (keys.getLength() != 0) {
-            final String keyString = keys.item(0).getTextContent();
-            final Matcher matcher = SDK_NAME_PATTERN.matcher(keyString);
-            if (matcher.find()) {
-              final String version = matcher.group(1);
-              String md5 = null;
-              if (eTags.getLength() > 0) {
-                final Matcher md5matcher = MD5PATTERN.matcher(eTags.item(0).getTextContent());
-                if (md5matcher.find()) {
-                  md5 = md5matcher.group(1);
-                }
-              }
-              recordMap.merge(version,
-                  List.of(new GoRecord.GoFile(keyString, concatUrl(baseUri, keyString),
-                      md5 == null ? Map.of() : Map.of(MD5, md5))),
-                  (a, b) -> concat(a.stream(), b.stream()).collect(toList()));
-            }
+  /**
+   * Stream Google Storage ListBucketResult page and collect found GoSDK files into record map.
+   *
+   * @param baseUri   base URI to make file links, can be null
+   * @param reader    reader of the listing page, must not be null
+   * @param recordMap map of GoSDK versions to found files, must not be null
+   * @param stopOnKey predicate to stop streaming after the key, can be null
+   * @return parsed page info
+   * @throws IOException if the page can't be parsed
+   */
+  public static ListBucketStreamParser.Page collectGoogleApisRecords(
+      final String baseUri,
+      final Reader reader,
+      final Map<String, List<GoRecord.GoFile>> recordMap,
+      final Predicate<String> stopOnKey) throws IOException {
+    return scanGoogleApisXml(baseUri, reader, (version, file) -> {
+      recordMap.computeIfAbsent(version, k -> new ArrayList<>()).add(file);
+      return stopOnKey == null || !stopOnKey.test(file.getFileName());
+    });
+  }
+
+  /**
+   * Make list of records sorted by name from record map.
+   *
+   * @param recordMap map of GoSDK versions to files, must not be null
+   * @return sorted list of records
+   */
+  public static List<GoRecord> toSortedRecords(
+      final Map<String, List<GoRecord.GoFile>> recordMap) {
+    return recordMap.entrySet().stream()
+        .map(e -> new GoRecord(e.getKey(), e.getValue()))
+        .sorted(Comparator.comparing(GoRecord::getName))
+        .collect(toList());
+  }
+
+  static void scanJsonObject_v1(final String baseUri, final String text,
+                                final GoFileVisitor visitor) throws IOException {
+    try (final JsonReader reader = new JsonReader(new StringReader(text))) {
+      reader.beginObject();
+      while (reader.hasNext()) {
+        final String sdkName = reader.nextName();
+        reader.beginObject();
+        while (reader.hasNext()) {
+          final String fileName = reader.nextName();
+          final GoRecord.GoFile file;
+          if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+            file = readJsonFile(baseUri, fileName, reader);
+          } else {
+            file = new GoRecord.GoFile(fileName, reader.nextString(), Map.of());
+          }
+          if (!visitor.visit(sdkName, file)) {
+            return;
           }
         }
+        reader.endObject();
+      }
+      reader.endObject();
+      if (reader.peek() != JsonToken.END_DOCUMENT) {
+        throw new IOException("Unexpected data after JSON object");
+      }
+    }
+  }
 
-        return Optional.of(recordMap.entrySet().stream()
-            .map(e -> new GoRecord(e.getKey(), e.getValue()))
-            .sorted(Comparator.comparing(GoRecord::getName))
-            .collect(toList()));
+  private static GoRecord.GoFile readJsonFile(final String baseUri, final String fileName,
+                                              final JsonReader reader) throws IOException {
+    String fileLink = null;
+    final Map<GoRecordChecksum, String> checksums = new EnumMap<>(GoRecordChecksum.class);
+    reader.beginObject();
+    while (reader.hasNext()) {
+      final String name = reader.nextName();
+      if (JSON_LINK.equals(name)) {
+        fileLink = concatUrl(baseUri, reader.nextString());
+      } else if (JSON_CHECKSUM.equals(name)) {
+        reader.beginObject();
+        while (reader.hasNext()) {
+          final Optional<GoRecordChecksum> checksum = GoRecordChecksum.find(reader.nextName());
+          final String value = reader.nextString();
+          checksum.ifPresent(x -> checksums.put(x, value));
+        }
+        reader.endObject();
       } else {
-        return Optional.empty();
+        reader.skipValue();
       }
-    } catch (ParserConfigurationException | SAXException | IOException ex) {
-      return Optional.empty();
     }
-
+    reader.endObject();
+    if (fileLink == null) {
+      throw new IOException("There is no link for file: " + fileName);
+    }
+    return new GoRecord.GoFile(fileName, fileLink, checksums);
   }
 
-  protected static Optional<List<GoRecord>> tryAsJsonObject_v1(final String baseUri,
-                                                               final String text) {
+  /**
+   * Scan text with scanner and collect all found files into records sorted by name.
+   *
+   * @param baseUri base URI to resolve relative links, can be null
+   * @param text    text to be parsed, must not be null
+   * @param scanner scanner of the text format, must not be null
+   * @return records or empty if the text can't be parsed by the scanner
+   */
+  static Optional<List<GoRecord>> collectRecords(final String baseUri, final String text,
+                                                 final GoFileScanner scanner) {
+    final Map<String, List<GoRecord.GoFile>> records = new HashMap<>();
     try {
-      final List<GoRecord> records = new ArrayList<>();
-      final JsonObject list =
-          JsonParser.parseReader(new JsonReader(new StringReader(text))).getAsJsonObject();
-
-      var sdkMap = list.asMap();
-      for (var w : sdkMap.entrySet()) {
-        final String sdkName = w.getKey();
-        final JsonElement sdkRecord = w.getValue();
-        final List<GoRecord.GoFile> goFiles = new ArrayList<>();
-
-        var recordMap = sdkRecord.getAsJsonObject().asMap();
-        for (var rr : recordMap.entrySet()) {
-          final String fileName = rr.getKey();
-          final JsonElement fileData = rr.getValue();
-          final String fileLink;
-          final Map<GoRecordChecksum, String> checksums;
-          if (fileData.isJsonPrimitive()) {
-            fileLink = fileData.getAsString();
-            checksums = Map.of();
-          } else if (fileData.isJsonObject()) {
-            final JsonObject fileDataObject = fileData.getAsJsonObject();
-            fileLink = concatUrl(baseUri, fileDataObject.get(JSON_LINK).getAsString());
-            if (fileDataObject.has(JSON_CHECKSUM)) {
-              checksums = fileDataObject.getAsJsonObject(JSON_CHECKSUM).asMap()
-                  .entrySet()
-                  .stream()
-                  .flatMap(entry -> GoRecordChecksum.find(entry.getKey()).stream()
-                      .map(cs -> Map.entry(cs, entry.getValue().getAsString())))
-                  .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-            } else {
-              checksums = Map.of();
-            }
-          } else {
-            throw new IllegalArgumentException("Unsupported object in JSON");
-          }
-          goFiles.add(new GoRecord.GoFile(fileName, fileLink, checksums));
-        }
+      scanner.scan(baseUri, text, (version, file) -> {
+        records.computeIfAbsent(version, k -> new ArrayList<>()).add(file);
+        return true;
+      });
+    } catch (Exception ex) {
+      return Optional.empty();
+    }
+    return Optional.of(toSortedRecords(records));
+  }
 
-        records.add(new GoRecord(sdkName, goFiles));
+  /**
+   * Detect format of GoSDK list by content type and first non-whitespace chars of the text.
+   *
+   * @param contentType content type of loaded text, can be null
+   * @param text        loaded text, must not be null
+   * @return detected format or empty if the format can't be detected
+   */
+  public static Optional<SdkListFormat> sniffFormat(final String contentType, final String text) {
+    if (contentType != null) {
+      final String normalized = contentType.toLowerCase(Locale.ROOT);
+      if (normalized.contains("json")) {
+        return Optional.of(SdkListFormat.JSON);
+      } else if (normalized.contains("html")) {
+        return Optional.of(SdkListFormat.HTML);
+      } else if (normalized.contains("xml")) {
+        return Optional.of(SdkListFormat.XML);
       }
-      records.sort(Comparator.comparing(GoRecord::getName));
-      return Optional.of(records);
-    } catch (Exception ex) {
+    }
+
+    int index = 0;
+    final int length = text.length();
+    while (index < length
+        && (Character.isWhitespace(text.charAt(index)) || text.charAt(index) == '\uFEFF')) {
+      index++;
+    }
+    if (index == length) {
       return Optional.empty();
     }
+    final char first = text.charAt(index);
+    if (first == '{') {
+      return Optional.of(SdkListFormat.JSON);
+    } else if (first == '<') {
+      final String head = text.substring(index, Math.min(length, index + SNIFF_HEAD_LENGTH))
+          .toLowerCase(Locale.ROOT);
+      if (head.startsWith("<!doctype html") || head.contains("<html")) {
+        return Optional.of(SdkListFormat.HTML);
+      }
+      return Optional.of(SdkListFormat.XML);
+    }
+    return Optional.of(SdkListFormat.PLAIN_TEXT);
   }
 
   public Optional<List<GoRecord>> findRecords(final String baseUri, final String text) {
-    List<GoRecord> result = tryAsPlainText(baseUri, text).orElse(null);
+    return this.findRecords(baseUri, null, text, SdkListFormat.DEFAULT_ORDER);
+  }
 
-    if (result == null) {
-      result = tryAsGoogleApisXml(baseUri, text).orElse(null);
+  /**
+   * Find GoSDK records in text. The parser of detected format is tried first and other parsers
+   * are tried in provided order only if it fails.
+   *
+   * @param baseUri     base URI to resolve relative links, can be null
+   * @param contentType content type of loaded text, can be null
+   * @param text        loaded text, must not be null
+   * @param formats     order of formats to be tried, must not be null
+   * @return found records or empty if the text can't be parsed
+   */
+  public Optional<List<GoRecord>> findRecords(
+      final String baseUri,
+      final String contentType,
+      final String text,
+      final List<SdkListFormat> formats) {
+    for (final SdkListFormat format : orderFormats(contentType, text, formats)) {
+      final Optional<List<GoRecord>> result = format.parse(baseUri, text);
+      if (result.isPresent()) {
+        return result;
+      }
     }
+    return Optional.empty();
+  }
 
-    if (result == null) {
-      result = tryAsJsonObject_v1(baseUri, text).orElse(null);
+  /**
+   * Find GoSDK archive file in text without building of records for whole list, scanning is
+   * stopped as soon as the file is met. The parser of detected format is tried first and other
+   * parsers are tried in provided order only if it fails.
+   *
+   * @param baseUri     base URI to resolve relative links, can be null
+   * @param contentType content type of loaded text, can be null
+   * @param text        loaded text, must not be null
+   * @param formats     order of formats to be tried, must not be null
+   * @param sdkBaseName base name of GoSDK, for instance go1.25.5.linux-amd64, must not be null
+   * @param extensions  allowed archive extensions without dot, must not be null
+   * @return found file or empty if there is no such file or the text can't be parsed
+   */
+  public Optional<GoRecord.GoFile> findSdkFile(
+      final String baseUri,
+      final String contentType,
+      final String text,
+      final List<SdkListFormat> formats,
+      final String sdkBaseName,
+      final List<String> extensions) {
+    final Set<String> fileNames =
+        extensions.stream().map(x -> sdkBaseName + '.' + x).collect(toSet());
+    final AtomicReference<GoRecord.GoFile> found = new AtomicReference<>();
+    final GoFileVisitor visitor = (version, file) -> {
+      if (fileNames.contains(file.getFileName())) {
+        found.set(file);
+        return false;
+      }
+      return true;
+    };
+    for (final SdkListFormat format : orderFormats(contentType, text, formats)) {
+      if (format.scan(baseUri, text, visitor)) {
+        return Optional.ofNullable(found.get());
+      }
     }
+    return Optional.empty();
+  }
 
-    if (result == null) {
-      result = tryAsSdkSiteHtml(baseUri, text).orElse(null);
+  private static List<SdkListFormat> orderFormats(final String contentType, final String text,
+                                                  final List<SdkListFormat> formats) {
+    final SdkListFormat sniffed = sniffFormat(contentType, text).orElse(null);
+    if (sniffed == null || !formats.contains(sniffed)) {
+      return formats;
     }
+    final List<SdkListFormat> result = new ArrayList<>(formats.size());
+    result.add(sniffed);
+    formats.stream().filter(x -> x != sniffed).forEach(result::add);
+    return result;
+  }
 
-    if (result == null) {
-      result = tryAsPlainText(baseUri, text).orElse(null);
-    }
+  /**
+   * Visitor of GoSDK files found in GoSDK list.
+   */
+  @FunctionalInterface
+  public interface GoFileVisitor {
+    /**
+     * Visit found file.
+     *
+     * @param version GoSDK version of the file, not null
+     * @param file    found file, not null
+     * @return true to continue scanning, false to stop it
+     */
+    boolean visit(String version, GoRecord.GoFile file);
+  }
 
-    return Optional.ofNullable(result);
+  /**
+   * Scanner of GoSDK list text in some format.
+   */
+  @FunctionalInterface
+  interface GoFileScanner {
+    void scan(String baseUri, String text, GoFileVisitor visitor) throws Exception;
   }
 }
@@ -0,0 +1,51 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+/**
+ * Provider of GZIP decompression for TAR_GZ archives. Custom implementation can be provided by class
+ * name, the class must have public default constructor.
+ *
+ * @see StandardGzipDecompressor
+ */
+public interface GzipDecompressor {
+
+  /**
+   * Find decompressor for name, the name can be either name of a standard decompressor or name of
+   * a class implementing the interface.
+   *
+   * @param name name of standard decompressor or class name, must not be null
+   * @return found decompressor
+   * @throws IllegalArgumentException if decompressor can't be found or instantiated
+   */
+  static GzipDecompressor find(final String name) {
+    final String trimmed = name.trim();
+    for (final StandardGzipDecompressor standard : StandardGzipDecompressor.values()) {
+      if (standard.name().equals(trimmed.toUpperCase(Locale.ROOT))) {
+        return standard;
+      }
+    }
+    try {
+      final Class<?> klazz =
+          Class.forName(trimmed, true, GzipDecompressor.class.getClassLoader());
+      if (!GzipDecompressor.class.isAssignableFrom(klazz)) {
+        throw new IllegalArgumentException(
+            "Class doesn't implement " + GzipDecompressor.class.getName() + ": " + trimmed);
+      }
+      return (GzipDecompressor) klazz.getConstructor().newInstance();
+    } catch (ReflectiveOperationException ex) {
+      throw new IllegalArgumentException("Can't create GZIP decompressor: " + trimmed, ex);
+    }
+  }
+
+  /**
+   * Wrap stream of compressed data.
+   *
+   * @param compressed stream contains GZIP data, must not be null
+   * @return stream of decompressed data, its closing must close the source stream
+   * @throws IOException if any IO error or wrong GZIP header
+   */
+  InputStream decompress(InputStream compressed) throws IOException;
+}
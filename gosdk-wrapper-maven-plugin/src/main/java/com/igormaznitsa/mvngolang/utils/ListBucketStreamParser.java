@@ -0,0 +1,192 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streaming parser of Google Storage (S3 compatible) {@code ListBucketResult} listing. Only keys
+ * and ETags of {@code Contents} entries are extracted and provided to consumer as soon as they are
+ * read, so memory doesn't depend on size of the listing and parsing can be stopped early.
+ * Pagination fields {@code IsTruncated} and {@code NextMarker} are returned for the page.
+ */
+public final class ListBucketStreamParser {
+
+  private static final String ROOT = "ListBucketResult";
+  private static final XMLInputFactory FACTORY = makeFactory();
+
+  private ListBucketStreamParser() {
+  }
+
+  private static XMLInputFactory makeFactory() {
+    final XMLInputFactory factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    return factory;
+  }
+
+  /**
+   * Parse listing page from reader.
+   *
+   * @param textReader reader of XML document, must not be null, not closed by the method
+   * @param consumer   consumer of found entries, must not be null
+   * @return parsed page info
+   * @throws IOException if document is not well-formed or it is not ListBucketResult
+   */
+  public static Page parse(final Reader textReader, final ContentConsumer consumer)
+      throws IOException {
+    final XMLStreamReader reader;
+    try {
+      reader = FACTORY.createXMLStreamReader(textReader);
+    } catch (XMLStreamException ex) {
+      throw new IOException("Can't create XML reader", ex);
+    }
+    return parse(reader, consumer);
+  }
+
+  private static Page parse(final XMLStreamReader reader, final ContentConsumer consumer)
+      throws IOException {
+    boolean truncated = false;
+    String nextMarker = null;
+    String lastKey = null;
+    int count = 0;
+
+    int depth = 0;
+    boolean inContents = false;
+    String key = null;
+    String etag = null;
+    try {
+      while (reader.hasNext()) {
+        final int event = reader.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          depth++;
+          final String name = reader.getLocalName();
+          if (depth == 1) {
+            if (!ROOT.equals(name)) {
+              throw new IOException("It is not a ListBucket document [" + name + ']');
+            }
+          } else if (depth == 2) {
+            switch (name) {
+              case "Contents": {
+                inContents = true;
+                key = null;
+                etag = null;
+              }
+              break;
+              case "IsTruncated": {
+                truncated = Boolean.parseBoolean(reader.getElementText().trim());
+                depth--;
+              }
+              break;
+              case "NextMarker": {
+                nextMarker = reader.getElementText().trim();
+                depth--;
+              }
+              break;
+              default:
+                break;
+            }
+          } else if (depth == 3 && inContents) {
+            if ("Key".equals(name)) {
+              key = reader.getElementText().trim();
+              depth--;
+            } else if ("ETag".equals(name)) {
+              etag = reader.getElementText().trim();
+              depth--;
+            }
+          }
+        } else if (event == XMLStreamConstants.END_ELEMENT) {
+          if (depth == 2 && inContents) {
+            inContents = false;
+            if (key != null && !key.isEmpty()) {
+              lastKey = key;
+              count++;
+              if (!consumer.accept(key, etag)) {
+                return new Page(truncated, nextMarker, lastKey, count, true);
+              }
+            }
+          }
+          depth--;
+        }
+      }
+    } catch (XMLStreamException ex) {
+      throw new IOException("Can't parse ListBucket document: " + ex.getMessage(), ex);
+    } finally {
+      try {
+        reader.close();
+      } catch (XMLStreamException ex) {
+        // ignore
+      }
+    }
+    return new Page(truncated, nextMarker, lastKey, count, false);
+  }
+
+  /**
+   * Consumer of listing entries.
+   */
+  @FunctionalInterface
+  public interface ContentConsumer {
+    /**
+     * Accept entry.
+     *
+     * @param key  key of the entry, not null
+     * @param etag ETag of the entry, can be null
+     * @return true to continue parsing, false to stop parsing
+     */
+    boolean accept(String key, String etag);
+  }
+
+  /**
+   * Info about parsed listing page.
+   */
+  public static final class Page {
+    private final boolean truncated;
+    private final String nextMarker;
+    private final String lastKey;
+    private final int count;
+    private final boolean stopped;
+
+    private Page(final boolean truncated, final String nextMarker, final String lastKey,
+                 final int count, final boolean stopped) {
+      this.truncated = truncated;
+      this.nextMarker = nextMarker;
+      this.lastKey = lastKey;
+      this.count = count;
+      this.stopped = stopped;
+    }
+
+    public boolean isTruncated() {
+      return this.truncated;
+    }
+
+    /**
+     * Get marker to request next page, if server doesn't provide NextMarker then the last key is
+     * used.
+     *
+     * @return marker for next page or null if there is no next page
+     */
+    public String getNextMarker() {
+      if (!this.truncated) {
+        return null;
+      }
+      return this.nextMarker == null || this.nextMarker.isEmpty() ? this.lastKey : this.nextMarker;
+    }
+
+    public int getCount() {
+      return this.count;
+    }
+
+    /**
+     * Check that parsing has been stopped by consumer.
+     *
+     * @return true if consumer has stopped parsing
+     */
+    public boolean isStopped() {
+      return this.stopped;
+    }
+  }
+}
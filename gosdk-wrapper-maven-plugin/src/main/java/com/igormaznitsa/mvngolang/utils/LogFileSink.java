@@ -0,0 +1,125 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+
+/**
+ * Append-only log file kept open for whole life of a process. Written data is collected in a
+ * buffer and written into the file when the buffer is full, when the flush interval is exceeded
+ * since the last write into the file, or on close. The sink is thread safe so that both output
+ * streams of a process can share the same file. Plain file stream is used instead of file channel
+ * because interruption of a writing thread closes file channel.
+ */
+public final class LogFileSink implements Closeable {
+
+  public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+  public static final long DEFAULT_FLUSH_INTERVAL_MS = 1000L;
+
+  private final Path file;
+  private final FileOutputStream stream;
+  private final byte[] buffer;
+  private int position;
+  private final long flushIntervalNanos;
+  private long lastFlush;
+  private boolean closed;
+
+  /**
+   * Open log file for appending, creates the file if it doesn't exist.
+   *
+   * @param file            log file, must not be null
+   * @param bufferSize      size of buffer in bytes
+   * @param flushIntervalMs max time in milliseconds to keep written data in the buffer, zero or
+   *                        negative to flush only on full buffer and close
+   * @throws IOException if the file can't be opened
+   */
+  public LogFileSink(final Path file, final int bufferSize, final long flushIntervalMs)
+      throws IOException {
+    this.file = file;
+    this.stream = new FileOutputStream(file.toFile(), true);
+    this.buffer = new byte[Math.max(1024, bufferSize)];
+    this.flushIntervalNanos = flushIntervalMs <= 0L ? -1L : flushIntervalMs * 1_000_000L;
+    this.lastFlush = System.nanoTime();
+  }
+
+  public Path getFile() {
+    return this.file;
+  }
+
+  /**
+   * Write text.
+   *
+   * @param text    text to be written, must not be null
+   * @param charset charset to encode the text, must not be null
+   * @throws IOException if the sink is closed or any IO error
+   */
+  public void write(final String text, final Charset charset) throws IOException {
+    final byte[] data = text.getBytes(charset);
+    this.write(data, 0, data.length);
+  }
+
+  /**
+   * Write bytes.
+   *
+   * @param data   array of bytes, must not be null
+   * @param offset offset of first byte in the array
+   * @param length number of bytes to be written
+   * @throws IOException if the sink is closed or any IO error
+   */
+  public synchronized void write(final byte[] data, final int offset, final int length)
+      throws IOException {
+    if (this.closed) {
+      throw new IOException("Log file sink is closed: " + this.file);
+    }
+    if (length > this.buffer.length - this.position) {
+      this.writeBuffer();
+      if (length > this.buffer.length) {
+        this.stream.write(data, offset, length);
+        return;
+      }
+    }
+    System.arraycopy(data, offset, this.buffer, this.position, length);
+    this.position += length;
+    if (this.flushIntervalNanos > 0L
+        && System.nanoTime() - this.lastFlush >= this.flushIntervalNanos) {
+      this.writeBuffer();
+    }
+  }
+
+  /**
+   * Write buffered data into the file.
+   *
+   * @throws IOException if any IO error
+   */
+  public synchronized void flush() throws IOException {
+    if (!this.closed) {
+      this.writeBuffer();
+    }
+  }
+
+  private void writeBuffer() throws IOException {
+    try {
+      if (this.position > 0) {
+        this.stream.write(this.buffer, 0, this.position);
+      }
+    } finally {
+      this.position = 0;
+      this.lastFlush = System.nanoTime();
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    try {
+      this.writeBuffer();
+    } finally {
+      this.closed = true;
+      this.stream.close();
+    }
+  }
+}
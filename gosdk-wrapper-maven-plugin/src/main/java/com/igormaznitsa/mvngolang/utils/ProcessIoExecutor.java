@@ -0,0 +1,72 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared executor for tasks serving started processes, like pumps of process output. If the
+ * runtime supports virtual threads then every task gets its own virtual thread, otherwise tasks are
+ * executed by shared pool of daemon threads which are released after some idle time. Virtual
+ * threads are looked up through reflection to keep Java 11 as the baseline.
+ */
+public final class ProcessIoExecutor {
+
+  private static final String THREAD_PREFIX = "gosdk-process-io-";
+  private static final long IDLE_KEEP_ALIVE_SECONDS = 30L;
+  private static final ExecutorService VIRTUAL = makeVirtualThreadExecutor();
+  private static final ExecutorService SHARED = VIRTUAL == null ? makeSharedPool() : VIRTUAL;
+
+  private ProcessIoExecutor() {
+  }
+
+  private static ExecutorService makeVirtualThreadExecutor() {
+    try {
+      final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      final Object namedBuilder = builderClass.getMethod("name", String.class, long.class)
+          .invoke(builder, THREAD_PREFIX, 1L);
+      final ThreadFactory factory =
+          (ThreadFactory) builderClass.getMethod("factory").invoke(namedBuilder);
+      return (ExecutorService) Executors.class
+          .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+          .invoke(null, factory);
+    } catch (Exception | LinkageError ex) {
+      // virtual threads are not supported by the runtime or not enabled
+      return null;
+    }
+  }
+
+  private static ExecutorService makeSharedPool() {
+    final AtomicInteger counter = new AtomicInteger();
+    // pool is not bounded because every task is blocked by a process stream during process life
+    return new ThreadPoolExecutor(0, Integer.MAX_VALUE, IDLE_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+        new SynchronousQueue<>(), r -> {
+      final Thread thread = new Thread(r, THREAD_PREFIX + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Get shared executor, it must not be shut down.
+   *
+   * @return executor based on virtual threads or shared pool
+   */
+  public static ExecutorService getExecutor() {
+    return SHARED;
+  }
+
+  /**
+   * Check that virtual threads are used.
+   *
+   * @return true if tasks are executed by virtual threads
+   */
+  public static boolean isVirtual() {
+    return VIRTUAL != null;
+  }
+}
@@ -0,0 +1,158 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Pumps output stream of a process by byte blocks. If there is no line consumer then read blocks
+ * are written into log file sink as is, otherwise output is split into lines which are written
+ * into the sink as raw bytes and decoded into strings for the consumer. Line feed is used as line
+ * separator, trailing carriage return is removed from decoded lines. The sink is flushed
+ * every time when the stream has no more available data, so that output of an idle process doesn't
+ * stay in the buffer of the sink until the next write.
+ */
+public final class ProcessOutputPump implements Runnable {
+
+  public static final int BLOCK_SIZE = 16 * 1024;
+
+  private final InputStream inputStream;
+  private final LogFileSink sink;
+  private final Charset charset;
+  private final Consumer<String> lineConsumer;
+  private final Consumer<IOException> errorConsumer;
+
+  private byte[] carry = new byte[256];
+  private int carryLength;
+  private boolean sinkFailed;
+  private volatile long pumpedBytes;
+
+  /**
+   * Constructor.
+   *
+   * @param inputStream   stream to be read, must not be null, closed at the end
+   * @param sink          sink to write raw output, can be null
+   * @param charset       charset to decode lines for the line consumer, must not be null
+   * @param lineConsumer  consumer of decoded lines without line separator, can be null
+   * @param errorConsumer consumer of read and write errors, must not be null
+   */
+  public ProcessOutputPump(
+      final InputStream inputStream,
+      final LogFileSink sink,
+      final Charset charset,
+      final Consumer<String> lineConsumer,
+      final Consumer<IOException> errorConsumer) {
+    this.inputStream = inputStream;
+    this.sink = sink;
+    this.charset = charset;
+    this.lineConsumer = lineConsumer;
+    this.errorConsumer = errorConsumer;
+  }
+
+  /**
+   * Get number of bytes read from the stream.
+   *
+   * @return number of read bytes
+   */
+  public long getPumpedBytes() {
+    return this.pumpedBytes;
+  }
+
+  @Override
+  public void run() {
+    final byte[] block = new byte[BLOCK_SIZE];
+    try (final InputStream input = this.inputStream) {
+      while (!Thread.currentThread().isInterrupted()) {
+        if (input.available() == 0) {
+          this.flushSink();
+        }
+        final int read = input.read(block);
+        if (read < 0) {
+          break;
+        }
+        this.pumpedBytes += read;
+        if (this.lineConsumer == null) {
+          this.writeSink(block, 0, read);
+        } else {
+          this.splitBlock(block, read);
+        }
+      }
+    } catch (IOException ex) {
+      this.errorConsumer.accept(ex);
+    } finally {
+      if (this.carryLength > 0) {
+        this.emitLine(this.carry, 0, this.carryLength);
+        this.carryLength = 0;
+      }
+    }
+  }
+
+  private void splitBlock(final byte[] block, final int length) {
+    int lineStart = 0;
+    for (int i = 0; i < length; i++) {
+      if (block[i] == '\n') {
+        if (this.carryLength > 0) {
+          this.appendCarry(block, lineStart, i + 1 - lineStart);
+          this.emitLine(this.carry, 0, this.carryLength);
+          this.carryLength = 0;
+        } else {
+          this.emitLine(block, lineStart, i + 1 - lineStart);
+        }
+        lineStart = i + 1;
+      }
+    }
+    this.appendCarry(block, lineStart, length - lineStart);
+  }
+
+  private void appendCarry(final byte[] data, final int offset, final int length) {
+    if (length <= 0) {
+      return;
+    }
+    if (this.carryLength + length > this.carry.length) {
+      this.carry = Arrays.copyOf(this.carry, Math.max(this.carry.length * 2,
+          this.carryLength + length));
+    }
+    System.arraycopy(data, offset, this.carry, this.carryLength, length);
+    this.carryLength += length;
+  }
+
+  private void emitLine(final byte[] data, final int offset, final int length) {
+    this.writeSink(data, offset, length);
+    if (this.lineConsumer != null) {
+      int end = offset + length;
+      if (end > offset && data[end - 1] == '\n') {
+        end--;
+      }
+      if (end > offset && data[end - 1] == '\r') {
+        end--;
+      }
+      this.lineConsumer.accept(new String(data, offset, end - offset, this.charset));
+    }
+  }
+
+  private void flushSink() {
+    if (this.sink == null || this.sinkFailed) {
+      return;
+    }
+    try {
+      this.sink.flush();
+    } catch (IOException ex) {
+      this.sinkFailed = true;
+      this.errorConsumer.accept(ex);
+    }
+  }
+
+  private void writeSink(final byte[] data, final int offset, final int length) {
+    if (this.sink == null || this.sinkFailed || length <= 0) {
+      return;
+    }
+    try {
+      this.sink.write(data, offset, length);
+    } catch (IOException ex) {
+      this.sinkFailed = true;
+      this.errorConsumer.accept(ex);
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import java.io.File;
+
+/**
+ * Configuration of process builder redirects for process log files. Error output is merged into
+ * standard output only if there is no separate file for it. In direct mode the process output is
+ * written by OS directly into log files or discarded if there is no log file.
+ */
+public final class ProcessRedirects {
+
+  private ProcessRedirects() {
+  }
+
+  /**
+   * Configure redirects of process builder.
+   *
+   * @param processBuilder process builder to be configured, must not be null
+   * @param outputFile     log file for standard output, can be null
+   * @param errorFile      log file for error output, can be null
+   * @param sameLogFile    true if both log files point to the same file
+   * @param direct         true if output should be redirected by OS directly into log files
+   * @return the same process builder
+   */
+  public static ProcessBuilder configure(
+      final ProcessBuilder processBuilder,
+      final File outputFile,
+      final File errorFile,
+      final boolean sameLogFile,
+      final boolean direct) {
+    processBuilder.redirectErrorStream(errorFile == null || (direct && sameLogFile));
+    if (direct) {
+      processBuilder.redirectOutput(outputFile == null ? ProcessBuilder.Redirect.DISCARD :
+          ProcessBuilder.Redirect.appendTo(outputFile));
+      if (!processBuilder.redirectErrorStream()) {
+        processBuilder.redirectError(ProcessBuilder.Redirect.appendTo(errorFile));
+      }
+    }
+    return processBuilder;
+  }
+}
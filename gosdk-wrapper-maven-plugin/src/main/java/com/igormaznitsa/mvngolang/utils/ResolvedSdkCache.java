@@ -0,0 +1,124 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * JVM-wide cache of resolved GoSDK folders, allows modules of the same build to skip resolution of
+ * already prepared GoSDK. Cached values are validated by cheap file checks before use: GoSDK in
+ * store folder must have a marker file, GoSDK found in PATH must have go executable.
+ */
+public final class ResolvedSdkCache {
+
+  public static final String MARKER_FILE_PREFIX = ".done.";
+
+  private static final Map<String, Path> CACHE = new ConcurrentHashMap<>();
+
+  private ResolvedSdkCache() {
+  }
+
+  private static String makeStoreKey(final Path storeFolder, final String sdkBaseName) {
+    return "store|" + storeFolder.toAbsolutePath().normalize() + '|' + sdkBaseName;
+  }
+
+  public static Path findMarkerFile(final Path storeFolder, final String sdkBaseName) {
+    return storeFolder.resolve(MARKER_FILE_PREFIX + sdkBaseName);
+  }
+
+  /**
+   * Find GoSDK folder among folders listed in PATH, result is cached for the same PATH value.
+   *
+   * @param path value of PATH environment variable, must not be null
+   * @return found GoSDK folder or empty
+   * @see OsUtils#findGoSdkFolderInPath(String)
+   */
+  public static Optional<Path> findInPath(final String path) {
+    final String key = "path|" + path;
+    final Path cached = CACHE.get(key);
+    if (cached != null) {
+      final boolean valid = List.of("go", "go.exe").stream()
+          .anyMatch(x -> Files.isRegularFile(cached.resolve("bin").resolve(x)));
+      if (valid) {
+        return Optional.of(cached);
+      }
+      CACHE.remove(key, cached);
+    }
+    final Optional<Path> result = OsUtils.findGoSdkFolderInPath(path);
+    result.ifPresent(x -> CACHE.put(key, x));
+    return result;
+  }
+
+  /**
+   * Find already prepared GoSDK folder in store folder, the SDK must be registered in the JVM cache
+   * and has marker file.
+   *
+   * @param storeFolder store folder, must not be null
+   * @param sdkBaseName base name of GoSDK, must not be null
+   * @return cached GoSDK folder or empty if not cached or not valid anymore
+   */
+  public static Optional<Path> findInStore(final Path storeFolder, final String sdkBaseName) {
+    final String key = makeStoreKey(storeFolder, sdkBaseName);
+    final Path cached = CACHE.get(key);
+    if (cached == null) {
+      return Optional.empty();
+    }
+    if (Files.isRegularFile(findMarkerFile(storeFolder, sdkBaseName))) {
+      return Optional.of(cached);
+    }
+    CACHE.remove(key, cached);
+    return Optional.empty();
+  }
+
+  /**
+   * Register prepared GoSDK folder, creates marker file if it doesn't exist. Should be called
+   * under the SDK lock.
+   *
+   * @param storeFolder store folder, must not be null
+   * @param sdkBaseName base name of GoSDK, must not be null
+   * @param sdkFolder   prepared GoSDK folder, must not be null
+   * @throws IOException if marker file can't be written
+   */
+  public static void registerInStore(final Path storeFolder, final String sdkBaseName,
+                                     final Path sdkFolder) throws IOException {
+    final Path marker = findMarkerFile(storeFolder, sdkBaseName);
+    if (!Files.isRegularFile(marker)) {
+      Files.writeString(marker, sdkFolder.getFileName().toString());
+    }
+    CACHE.put(makeStoreKey(storeFolder, sdkBaseName), sdkFolder);
+  }
+
+  /**
+   * Remove GoSDK from cache and delete its marker file. Should be called under the SDK lock
+   * before the SDK folder is changed or deleted.
+   *
+   * @param storeFolder store folder, must not be null
+   * @param sdkBaseName base name of GoSDK, must not be null
+   * @throws IOException if marker file can't be deleted
+   */
+  public static void invalidateInStore(final Path storeFolder, final String sdkBaseName)
+      throws IOException {
+    CACHE.remove(makeStoreKey(storeFolder, sdkBaseName));
+    Files.deleteIfExists(findMarkerFile(storeFolder, sdkBaseName));
+  }
+
+  /**
+   * Get names of GoSDKs resolved in the store folder by the current JVM.
+   *
+   * @param storeFolder store folder, must not be null
+   * @return names of resolved GoSDKs, can be empty
+   */
+  public static Set<String> listInStore(final Path storeFolder) {
+    final String prefix = makeStoreKey(storeFolder, "");
+    return CACHE.keySet().stream()
+        .filter(x -> x.startsWith(prefix))
+        .map(x -> x.substring(prefix.length()))
+        .collect(Collectors.toSet());
+  }
+}
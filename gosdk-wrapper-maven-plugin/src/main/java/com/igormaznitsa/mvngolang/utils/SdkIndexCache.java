@@ -0,0 +1,228 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import com.igormaznitsa.mvngolang.GoRecord;
+import com.igormaznitsa.mvngolang.GoRecordChecksum;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Persistent cache of GoSDK lists parsed from SDK sites, allows to skip download and parsing of
+ * SDK list if it is fresh enough and to revalidate it through conditional GET. Lists are kept in
+ * {@code <store>/.index} as plain text files keyed by site link and prefix (only for sites which
+ * filter list by prefix, whole lists are cached by link only), one record per line:
+ * <pre>
+ * R &lt;sdk name&gt;
+ * F &lt;file name&gt;\t&lt;link&gt;\t&lt;checksum&gt;=&lt;hex&gt;,...
+ * </pre>
+ */
+public final class SdkIndexCache {
+
+  public static final String FOLDER_NAME = ".index";
+  private static final String HEADER = "# GoSDK index 1";
+
+  private final Path folder;
+
+  public SdkIndexCache(final Path storeFolder) {
+    this.folder = storeFolder.resolve(FOLDER_NAME);
+  }
+
+  private static String nullIfEmpty(final String text) {
+    return text == null || text.isEmpty() ? null : text;
+  }
+
+  private static String safe(final String text) {
+    return text == null ? "" : text.replace('\n', ' ').replace('\t', ' ');
+  }
+
+  private Path findFile(final String link, final String prefix) {
+    return this.folder.resolve(
+        DigestUtils.sha256Hex(link + '\n' + (prefix == null ? "" : prefix)).substring(0, 32) +
+            ".idx");
+  }
+
+  /**
+   * Find cached list.
+   *
+   * @param link   link to SDK site, must not be null
+   * @param prefix prefix of SDK list request, null for whole list
+   * @return cached list or empty if not cached or cache file has wrong format
+   * @throws IOException if any IO error
+   */
+  public Optional<Entry> find(final String link, final String prefix) throws IOException {
+    final Path file = this.findFile(link, prefix);
+    final String normalizedPrefix = prefix == null ? "" : prefix;
+    try (final BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      if (!HEADER.equals(reader.readLine())
+          || !("url=" + link).equals(reader.readLine())
+          || !("prefix=" + normalizedPrefix).equals(reader.readLine())) {
+        return Optional.empty();
+      }
+      final String etag = readValue(reader.readLine(), "etag=");
+      final String lastModified = readValue(reader.readLine(), "lastModified=");
+      final String loaded = readValue(reader.readLine(), "loaded=");
+      if (loaded == null) {
+        return Optional.empty();
+      }
+
+      final List<GoRecord> records = new ArrayList<>();
+      String recordName = null;
+      List<GoRecord.GoFile> files = new ArrayList<>();
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.startsWith("R ")) {
+          if (recordName != null) {
+            records.add(new GoRecord(recordName, files));
+          }
+          recordName = line.substring(2);
+          files = new ArrayList<>();
+        } else if (line.startsWith("F ") && recordName != null) {
+          final String[] fields = line.substring(2).split("\t", -1);
+          if (fields.length != 3) {
+            return Optional.empty();
+          }
+          final Map<GoRecordChecksum, String> checksum = new EnumMap<>(GoRecordChecksum.class);
+          for (final String pair : fields[2].split(",")) {
+            final int index = pair.indexOf('=');
+            if (index > 0) {
+              checksum.put(GoRecordChecksum.valueOf(pair.substring(0, index)),
+                  pair.substring(index + 1));
+            }
+          }
+          files.add(new GoRecord.GoFile(fields[0], fields[1], checksum));
+        } else if (!line.isEmpty()) {
+          return Optional.empty();
+        }
+      }
+      if (recordName != null) {
+        records.add(new GoRecord(recordName, files));
+      }
+      return Optional.of(new Entry(link, prefix, nullIfEmpty(etag), nullIfEmpty(lastModified),
+          Long.parseLong(loaded), records));
+    } catch (NoSuchFileException ex) {
+      return Optional.empty();
+    } catch (IllegalArgumentException ex) {
+      return Optional.empty();
+    }
+  }
+
+  private static String readValue(final String line, final String prefix) {
+    return line == null || !line.startsWith(prefix) ? null : line.substring(prefix.length());
+  }
+
+  /**
+   * Write list into cache, replaces existing one.
+   *
+   * @param entry list to be written, must not be null
+   * @throws IOException if any IO error
+   */
+  public void write(final Entry entry) throws IOException {
+    Files.createDirectories(this.folder);
+    final Path indexFile = this.findFile(entry.link, entry.prefix);
+    final Path tempFile = Files.createTempFile(this.folder, ".idx", ".tmp");
+    try {
+      try (final BufferedWriter writer = Files.newBufferedWriter(tempFile,
+          StandardCharsets.UTF_8)) {
+        writer.write(HEADER);
+        writer.write('\n');
+        writer.write("url=" + entry.link + '\n');
+        writer.write("prefix=" + (entry.prefix == null ? "" : entry.prefix) + '\n');
+        writer.write("etag=" + safe(entry.etag) + '\n');
+        writer.write("lastModified=" + safe(entry.lastModified) + '\n');
+        writer.write("loaded=" + entry.loaded + '\n');
+        for (final GoRecord record : entry.records) {
+          writer.write("R " + safe(record.getName()) + '\n');
+          for (final GoRecord.GoFile file : record.getFiles()) {
+            final StringBuilder checksum = new StringBuilder();
+            file.getChecksum().forEach((k, v) -> {
+              if (checksum.length() > 0) {
+                checksum.append(',');
+              }
+              checksum.append(k.name()).append('=').append(safe(v));
+            });
+            writer.write(
+                "F " + safe(file.getFileName()) + '\t' + safe(file.getLink()) + '\t' + checksum +
+                    '\n');
+          }
+        }
+      }
+      Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Cached GoSDK list with validators of the loaded resource.
+   */
+  public static final class Entry {
+    private final String link;
+    private final String prefix;
+    private final String etag;
+    private final String lastModified;
+    private final long loaded;
+    private final List<GoRecord> records;
+
+    public Entry(final String link, final String prefix, final String etag,
+                 final String lastModified, final long loaded, final List<GoRecord> records) {
+      this.link = link;
+      this.prefix = prefix;
+      this.etag = etag;
+      this.lastModified = lastModified;
+      this.loaded = loaded;
+      this.records = List.copyOf(records);
+    }
+
+    public String getEtag() {
+      return this.etag;
+    }
+
+    public String getLastModified() {
+      return this.lastModified;
+    }
+
+    public long getLoaded() {
+      return this.loaded;
+    }
+
+    public List<GoRecord> getRecords() {
+      return this.records;
+    }
+
+    /**
+     * Check that the list has been loaded or revalidated not earlier than TTL ago.
+     *
+     * @param ttl time to live, must not be null
+     * @return true if the list is fresh
+     */
+    public boolean isFresh(final Duration ttl) {
+      final long age = System.currentTimeMillis() - this.loaded;
+      return age >= 0L && age < ttl.toMillis();
+    }
+
+    /**
+     * Make copy of the entry with new validators and load time, used after revalidation.
+     *
+     * @param etag         new ETag, can be null
+     * @param lastModified new Last-Modified, can be null
+     * @param loaded       time of revalidation
+     * @return new entry
+     */
+    public Entry revalidated(final String etag, final String lastModified, final long loaded) {
+      return new Entry(this.link, this.prefix, etag, lastModified, loaded, this.records);
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import com.igormaznitsa.mvngolang.GoRecord;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Supported formats of GoSDK list.
+ */
+public enum SdkListFormat {
+  PLAIN_TEXT(GoRecordExtractor::scanPlainText),
+  XML(GoRecordExtractor::scanGoogleApisXml),
+  JSON(GoRecordExtractor::scanJsonObject_v1),
+  HTML(GoRecordExtractor::scanSdkSiteHtml);
+
+  /**
+   * Order of formats used if the format can't be detected.
+   */
+  public static final List<SdkListFormat> DEFAULT_ORDER = List.of(PLAIN_TEXT, XML, JSON, HTML);
+
+  private final GoRecordExtractor.GoFileScanner scanner;
+
+  SdkListFormat(final GoRecordExtractor.GoFileScanner scanner) {
+    this.scanner = scanner;
+  }
+
+  public static Optional<SdkListFormat> find(final String name) {
+    if (name == null || name.isBlank()) {
+      return Optional.empty();
+    }
+    final String normalized = name.trim().toUpperCase(Locale.ROOT);
+    return Arrays.stream(SdkListFormat.values()).filter(x -> x.name().equals(normalized))
+        .findFirst();
+  }
+
+  /**
+   * Parse text as GoSDK list of the format.
+   *
+   * @param baseUri base URI to resolve relative links, can be null
+   * @param text    text to be parsed, must not be null
+   * @return parsed records or empty if the text can't be parsed
+   */
+  public Optional<List<GoRecord>> parse(final String baseUri, final String text) {
+    return GoRecordExtractor.collectRecords(baseUri, text, this.scanner);
+  }
+
+  /**
+   * Scan text as GoSDK list of the format and provide found files to visitor.
+   *
+   * @param baseUri base URI to resolve relative links, can be null
+   * @param text    text to be scanned, must not be null
+   * @param visitor visitor of found files, it can stop scanning, must not be null
+   * @return true if the text has been scanned as the format, false if it can't be parsed
+   */
+  public boolean scan(final String baseUri, final String text,
+                      final GoRecordExtractor.GoFileVisitor visitor) {
+    try {
+      this.scanner.scan(baseUri, text, visitor);
+      return true;
+    } catch (Exception ex) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,241 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import static com.igormaznitsa.mvngolang.GoRecordChecksum.SHA256;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Manifest of cached GoSDK folder: relative path, size, modification time and optional SHA-256 of
+ * each file. It is written before the unpacked GoSDK folder is moved into the store folder and
+ * allows to find and repair damaged files.
+ */
+public final class SdkManifest {
+
+  public static final String MANIFEST_FILE_PREFIX = ".manifest.";
+  private static final String HEADER = "# GoSDK manifest 1";
+  private static final String NO_HASH = "-";
+
+  private final Map<String, Item> items;
+
+  private SdkManifest(final Map<String, Item> items) {
+    this.items = items;
+  }
+
+  public static Path findManifestFile(final Path storeFolder, final String sdkBaseName) {
+    return storeFolder.resolve(MANIFEST_FILE_PREFIX + sdkBaseName);
+  }
+
+  private static String toRelative(final Path folder, final Path file) {
+    return folder.relativize(file).toString().replace(folder.getFileSystem().getSeparator(), "/");
+  }
+
+  private static Item makeItem(final Path file, final boolean withHash) throws IOException {
+    return new Item(
+        Files.size(file),
+        Files.getLastModifiedTime(file, LinkOption.NOFOLLOW_LINKS).toMillis(),
+        withHash ? ChecksumDigester.digest(file, List.of(SHA256)).getHex(SHA256) : null);
+  }
+
+  /**
+   * Make manifest for all regular files in folder.
+   *
+   * @param sdkFolder GoSDK folder, must not be null
+   * @param withHash  calculate SHA-256 of files
+   * @return created manifest
+   * @throws IOException if any IO error
+   */
+  public static SdkManifest create(final Path sdkFolder, final boolean withHash)
+      throws IOException {
+    final List<Path> files;
+    try (final Stream<Path> stream = Files.walk(sdkFolder)) {
+      files = stream.filter(x -> Files.isRegularFile(x, LinkOption.NOFOLLOW_LINKS))
+          .collect(Collectors.toList());
+    }
+    final Map<String, Item> items = new TreeMap<>();
+    try {
+      files.parallelStream()
+          .map(x -> {
+            try {
+              return Map.entry(toRelative(sdkFolder, x), makeItem(x, withHash));
+            } catch (IOException ex) {
+              throw new UncheckedIOException(ex);
+            }
+          })
+          .collect(Collectors.toList())
+          .forEach(x -> items.put(x.getKey(), x.getValue()));
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+    return new SdkManifest(items);
+  }
+
+  /**
+   * Compare files of GoSDK folder with reference folder by size and SHA-256 and replace missing or
+   * different files by reference ones. Used for GoSDK folders without manifest, for instance
+   * installed by previous versions, files which are not in the reference folder are kept as is.
+   *
+   * @param sdkFolder       GoSDK folder, must not be null
+   * @param referenceFolder folder with files unpacked from GoSDK archive, must not be null, replaced
+   *                        files are moved from it
+   * @return sorted relative paths of replaced files, empty if all files ok
+   * @throws IOException if any IO error
+   */
+  public static List<String> replaceDifferentFiles(final Path sdkFolder,
+                                                   final Path referenceFolder)
+      throws IOException {
+    final List<String> different = create(referenceFolder, true).findDamaged(sdkFolder, true);
+    for (final String file : different) {
+      final Path target = sdkFolder.resolve(file);
+      Files.createDirectories(target.getParent());
+      // remove first to not write into a file shared through hard links
+      Files.deleteIfExists(target);
+      Files.move(referenceFolder.resolve(file), target, StandardCopyOption.REPLACE_EXISTING);
+    }
+    return different;
+  }
+
+  /**
+   * Read manifest from file.
+   *
+   * @param manifestFile manifest file, must not be null
+   * @return read manifest or empty if there is no file or it has unknown format
+   * @throws IOException if any IO error
+   */
+  public static Optional<SdkManifest> read(final Path manifestFile) throws IOException {
+    final Map<String, Item> items = new TreeMap<>();
+    try (final BufferedReader reader =
+             Files.newBufferedReader(manifestFile, StandardCharsets.UTF_8)) {
+      if (!HEADER.equals(reader.readLine())) {
+        return Optional.empty();
+      }
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+        final String[] fields = line.split(" ", 4);
+        if (fields.length != 4) {
+          return Optional.empty();
+        }
+        items.put(fields[3], new Item(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+            NO_HASH.equals(fields[2]) ? null : fields[2]));
+      }
+    } catch (NoSuchFileException ex) {
+      return Optional.empty();
+    } catch (NumberFormatException ex) {
+      return Optional.empty();
+    }
+    return Optional.of(new SdkManifest(items));
+  }
+
+  /**
+   * Write manifest into file through temporary file.
+   *
+   * @param manifestFile target file, must not be null
+   * @throws IOException if any IO error
+   */
+  public void write(final Path manifestFile) throws IOException {
+    final Path tempFile = manifestFile.resolveSibling(manifestFile.getFileName() + ".tmp");
+    try (final BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+      writer.write(HEADER);
+      writer.write('\n');
+      for (final Map.Entry<String, Item> e : this.items.entrySet()) {
+        final Item item = e.getValue();
+        writer.write(item.size + " " + item.modified + ' ' +
+            (item.sha256 == null ? NO_HASH : item.sha256) + ' ' + e.getKey());
+        writer.write('\n');
+      }
+    }
+    Files.move(tempFile, manifestFile, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  public int size() {
+    return this.items.size();
+  }
+
+  public boolean hasHashes() {
+    return !this.items.isEmpty() && this.items.values().stream().allMatch(x -> x.sha256 != null);
+  }
+
+  /**
+   * Find damaged files in GoSDK folder, files are checked in parallel. Missing file or file with
+   * different size is always damaged. In fast mode a file with changed modification time is
+   * re-hashed if there is its hash, otherwise it is damaged. In deep mode all files are re-hashed.
+   *
+   * @param sdkFolder GoSDK folder, must not be null
+   * @param deep      re-hash all files which have hash in the manifest
+   * @return sorted relative paths of damaged files, empty if all files ok
+   */
+  public List<String> findDamaged(final Path sdkFolder, final boolean deep) {
+    final List<String> result = this.items.entrySet().parallelStream()
+        .filter(e -> isDamaged(sdkFolder.resolve(e.getKey()), e.getValue(), deep))
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toCollection(ArrayList::new));
+    Collections.sort(result);
+    return result;
+  }
+
+  private static boolean isDamaged(final Path file, final Item item, final boolean deep) {
+    try {
+      if (!Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS) || Files.size(file) != item.size) {
+        return true;
+      }
+      final boolean sameTime =
+          Files.getLastModifiedTime(file, LinkOption.NOFOLLOW_LINKS).toMillis() == item.modified;
+      if (item.sha256 == null) {
+        return !sameTime;
+      }
+      if (deep || !sameTime) {
+        return !item.sha256.equals(
+            ChecksumDigester.digest(file, List.of(SHA256)).getHex(SHA256));
+      }
+      return false;
+    } catch (IOException ex) {
+      return true;
+    }
+  }
+
+  /**
+   * Refresh records of files, for instance after their repair.
+   *
+   * @param sdkFolder GoSDK folder, must not be null
+   * @param files     relative paths of files to be refreshed
+   * @throws IOException if any IO error
+   */
+  public void refresh(final Path sdkFolder, final Collection<String> files) throws IOException {
+    for (final String file : files) {
+      final Item old = this.items.get(file);
+      this.items.put(file, makeItem(sdkFolder.resolve(file), old != null && old.sha256 != null));
+    }
+  }
+
+  private static final class Item {
+    private final long size;
+    private final long modified;
+    private final String sha256;
+
+    private Item(final long size, final long modified, final String sha256) {
+      this.size = size;
+      this.modified = modified;
+      this.sha256 = sha256;
+    }
+  }
+}
@@ -0,0 +1,386 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import static com.igormaznitsa.mvngolang.utils.FileUtils.LINK_OPTIONS_NO_FOLLOW_LINKS;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.io.file.PathUtils;
+
+/**
+ * Evicts least recently used GoSDKs from the store folder to keep it in configured limits of size,
+ * number of SDKs and age. Last access of SDK is tracked through modification time of
+ * {@code .access.<sdk>} file touched on each resolution of the SDK. SDK with held lock or accessed
+ * during configured grace time is never evicted because it can be used by a process started from
+ * another JVM. Size of SDKs is calculated by unique files so that files shared through hard links
+ * of content addressed store are counted once. Leftovers of interrupted operations and cached GoSDK
+ * lists not updated for a long time are removed too.
+ */
+public final class SdkStoreCleaner {
+
+  public static final String ACCESS_FILE_PREFIX = ".access.";
+  public static final String PRUNE_FILE_NAME = ".pruned";
+  /**
+   * Default time since last access of GoSDK during which the GoSDK is considered as in use.
+   */
+  public static final Duration DEFAULT_IN_USE_GRACE = Duration.ofDays(1);
+  /**
+   * Min interval between automatic prunes of store folder if no new GoSDK installed.
+   */
+  public static final Duration AUTO_PRUNE_INTERVAL = Duration.ofDays(1);
+  private static final List<String> TEMP_FOLDER_PREFIXES = List.of(".unpack", ".repair", ".evict");
+  private static final List<String> TEMP_FILE_PREFIXES = List.of(".tmp_", ".part_");
+  private static final Duration TEMP_FILE_MIN_AGE = Duration.ofDays(1);
+  private static final Duration INDEX_FILE_MAX_AGE = Duration.ofDays(30);
+
+  private final Path storeFolder;
+  private final long maxSize;
+  private final int maxCount;
+  private final Duration maxAge;
+  private final Duration inUseGrace;
+  private final Consumer<String> logger;
+
+  /**
+   * Constructor.
+   *
+   * @param storeFolder store folder, must not be null
+   * @param maxSize     max summary size of GoSDK folders in bytes, zero or negative if unlimited
+   * @param maxCount    max number of GoSDKs, zero or negative if unlimited
+   * @param maxAge      max time since last access of GoSDK, null if unlimited
+   * @param inUseGrace  time since last access during which GoSDK is not evicted, null if only
+   *                    locked GoSDKs are protected
+   * @param logger      consumer of log messages, must not be null
+   */
+  public SdkStoreCleaner(final Path storeFolder, final long maxSize, final int maxCount,
+                         final Duration maxAge, final Duration inUseGrace,
+                         final Consumer<String> logger) {
+    this.storeFolder = storeFolder;
+    this.maxSize = maxSize;
+    this.maxCount = maxCount;
+    this.maxAge = maxAge == null || maxAge.isZero() || maxAge.isNegative() ? null : maxAge;
+    this.inUseGrace = inUseGrace == null || inUseGrace.isNegative() ? Duration.ZERO : inUseGrace;
+    this.logger = logger;
+  }
+
+  public static Path findAccessFile(final Path storeFolder, final String sdkName) {
+    return storeFolder.resolve(ACCESS_FILE_PREFIX + sdkName);
+  }
+
+  /**
+   * Mark GoSDK as accessed now.
+   *
+   * @param storeFolder store folder, must not be null
+   * @param sdkName     name of GoSDK, must not be null
+   * @throws IOException if access file can't be written
+   */
+  public static void touch(final Path storeFolder, final String sdkName) throws IOException {
+    final Path accessFile = findAccessFile(storeFolder, sdkName);
+    if (!Files.isRegularFile(accessFile)) {
+      Files.write(accessFile, new byte[0]);
+    }
+    Files.setLastModifiedTime(accessFile, FileTime.fromMillis(System.currentTimeMillis()));
+  }
+
+  private static long calcFolderSize(final Path folder) throws IOException {
+    try (final Stream<Path> stream = Files.walk(folder)) {
+      return stream.filter(x -> Files.isRegularFile(x, LinkOption.NOFOLLOW_LINKS))
+          .mapToLong(x -> x.toFile().length())
+          .sum();
+    }
+  }
+
+  /**
+   * Collect sizes of regular files in folder keyed by file key, hard links to the same file have
+   * the same key. If file system doesn't provide file keys then path is used as key.
+   */
+  private static Map<Object, Long> collectFiles(final Path folder, final int maxDepth)
+      throws IOException {
+    final List<Path> files;
+    try (final Stream<Path> stream = Files.walk(folder, maxDepth)) {
+      files = stream.collect(Collectors.toList());
+    }
+    final Map<Object, Long> result = new HashMap<>();
+    for (final Path file : files) {
+      final BasicFileAttributes attributes =
+          Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+      if (attributes.isRegularFile()) {
+        result.put(attributes.fileKey() == null ? file : attributes.fileKey(), attributes.size());
+      }
+    }
+    return result;
+  }
+
+  private static boolean isOlder(final Path path, final Duration age) throws IOException {
+    final long modified = Files.getLastModifiedTime(path, LinkOption.NOFOLLOW_LINKS).toMillis();
+    return System.currentTimeMillis() - modified > age.toMillis();
+  }
+
+  /**
+   * Check that automatic prune of the store folder is due, it is detected by time of the last
+   * prune.
+   *
+   * @return true if the store folder has not been pruned during {@link #AUTO_PRUNE_INTERVAL}
+   */
+  public boolean isAutoPruneDue() {
+    final Path pruneFile = this.storeFolder.resolve(PRUNE_FILE_NAME);
+    try {
+      return !Files.isRegularFile(pruneFile) || isOlder(pruneFile, AUTO_PRUNE_INTERVAL);
+    } catch (IOException ex) {
+      return true;
+    }
+  }
+
+  /**
+   * Check that any limit is defined.
+   *
+   * @return true if size, count or age is limited
+   */
+  public boolean isLimited() {
+    return this.maxSize > 0L || this.maxCount > 0 || this.maxAge != null;
+  }
+
+  /**
+   * Remove leftovers, evict GoSDKs exceeding limits and collect garbage in content addressed store.
+   *
+   * @param protectedSdks names of GoSDKs which must not be evicted, must not be null
+   * @return result of pruning
+   * @throws IOException if any IO error
+   */
+  public Result prune(final Set<String> protectedSdks) throws IOException {
+    final Result result = new Result();
+    if (!Files.isDirectory(this.storeFolder)) {
+      return result;
+    }
+    this.removeLeftovers(result);
+    this.removeStaleIndexFiles(result);
+
+    final List<Entry> entries = this.listSdks();
+    entries.sort(Comparator.comparingLong(x -> x.accessed));
+    final Path casFolder = this.storeFolder.resolve(ContentAddressedStore.FOLDER_NAME);
+    final Set<Object> blobs = Files.isDirectory(casFolder)
+        ? collectFiles(casFolder, 2).keySet() : Set.of();
+    final Map<Object, Long> sizes = new HashMap<>();
+    final Map<Object, Integer> owners = new HashMap<>();
+    for (final Entry entry : entries) {
+      sizes.putAll(entry.files);
+      entry.files.keySet().forEach(x -> owners.merge(x, 1, Integer::sum));
+    }
+    long totalSize = sizes.values().stream().mapToLong(x -> x).sum();
+    int count = entries.size();
+    for (final Entry entry : entries) {
+      final boolean expired = this.maxAge != null
+          && System.currentTimeMillis() - entry.accessed > this.maxAge.toMillis();
+      final boolean overCount = this.maxCount > 0 && count > this.maxCount;
+      final boolean overSize = this.maxSize > 0L && totalSize > this.maxSize;
+      if (!(expired || overCount || overSize)) {
+        continue;
+      }
+      if (protectedSdks.contains(entry.name)
+          || System.currentTimeMillis() - entry.accessed < this.inUseGrace.toMillis()) {
+        this.logger.accept("GoSDK is in use, not evicted: " + entry.name);
+        result.inUse.add(entry.name);
+        continue;
+      }
+      if (this.evict(entry)) {
+        result.evicted.add(entry.name);
+        for (final Map.Entry<Object, Long> file : entry.files.entrySet()) {
+          if (owners.merge(file.getKey(), -1, Integer::sum) == 0) {
+            totalSize -= file.getValue();
+            // blobs of the store are freed by its garbage collection
+            if (!blobs.contains(file.getKey())) {
+              result.freedBytes += file.getValue();
+            }
+          }
+        }
+        count--;
+      } else {
+        result.locked.add(entry.name);
+      }
+    }
+
+    if (Files.isDirectory(casFolder)) {
+      result.freedBytes += new ContentAddressedStore(casFolder).collectGarbage();
+    }
+    result.remainingSdks = count;
+    result.remainingBytes = totalSize;
+
+    final Path pruneFile = this.storeFolder.resolve(PRUNE_FILE_NAME);
+    if (!Files.isRegularFile(pruneFile)) {
+      Files.write(pruneFile, new byte[0]);
+    }
+    Files.setLastModifiedTime(pruneFile, FileTime.fromMillis(System.currentTimeMillis()));
+    return result;
+  }
+
+  private List<Entry> listSdks() throws IOException {
+    final List<Path> folders;
+    try (final Stream<Path> stream = Files.list(this.storeFolder)) {
+      folders = stream
+          .filter(x -> !x.getFileName().toString().startsWith("."))
+          .filter(x -> Files.isDirectory(x, LinkOption.NOFOLLOW_LINKS))
+          .filter(x -> Files.isDirectory(x.resolve("bin")) || Files.isRegularFile(
+              SdkManifest.findManifestFile(this.storeFolder, x.getFileName().toString())))
+          .collect(Collectors.toList());
+    }
+    final List<Entry> result = new ArrayList<>();
+    for (final Path folder : folders) {
+      final String name = folder.getFileName().toString();
+      final Path accessFile = findAccessFile(this.storeFolder, name);
+      final Path timeSource = Files.isRegularFile(accessFile) ? accessFile : folder;
+      result.add(new Entry(name, folder, collectFiles(folder, Integer.MAX_VALUE),
+          Files.getLastModifiedTime(timeSource).toMillis()));
+    }
+    return result;
+  }
+
+  private boolean evict(final Entry entry) throws IOException {
+    final Optional<SdkStoreLock> lock = SdkStoreLock.tryAcquire(this.storeFolder, entry.name);
+    if (lock.isEmpty()) {
+      this.logger.accept("GoSDK is locked, not evicted: " + entry.name);
+      return false;
+    }
+    try (final SdkStoreLock ignored = lock.get()) {
+      this.logger.accept("Evicting GoSDK: " + entry.name);
+      ResolvedSdkCache.invalidateInStore(this.storeFolder, entry.name);
+      // rename first so that partially deleted folder is never taken as installed GoSDK
+      final Path evictFolder = entry.folder.resolveSibling(".evict" + entry.name);
+      if (Files.exists(evictFolder, LINK_OPTIONS_NO_FOLLOW_LINKS)) {
+        PathUtils.deleteDirectory(evictFolder, LINK_OPTIONS_NO_FOLLOW_LINKS);
+      }
+      Files.move(entry.folder, evictFolder, StandardCopyOption.ATOMIC_MOVE);
+      Files.deleteIfExists(SdkManifest.findManifestFile(this.storeFolder, entry.name));
+      Files.deleteIfExists(findAccessFile(this.storeFolder, entry.name));
+      PathUtils.deleteDirectory(evictFolder, LINK_OPTIONS_NO_FOLLOW_LINKS);
+    }
+    return true;
+  }
+
+  private void removeLeftovers(final Result result) throws IOException {
+    final List<Path> items;
+    try (final Stream<Path> stream = Files.list(this.storeFolder)) {
+      items = stream.collect(Collectors.toList());
+    }
+    for (final Path item : items) {
+      final String name = item.getFileName().toString();
+      if (Files.isDirectory(item, LinkOption.NOFOLLOW_LINKS)) {
+        final String prefix = TEMP_FOLDER_PREFIXES.stream()
+            .filter(name::startsWith).findFirst().orElse(null);
+        if (prefix == null || name.length() == prefix.length()) {
+          continue;
+        }
+        final Optional<SdkStoreLock> lock =
+            SdkStoreLock.tryAcquire(this.storeFolder, name.substring(prefix.length()));
+        if (lock.isPresent()) {
+          try (final SdkStoreLock ignored = lock.get()) {
+            this.logger.accept("Removing leftover folder: " + name);
+            result.freedBytes += calcFolderSize(item);
+            PathUtils.deleteDirectory(item, LINK_OPTIONS_NO_FOLLOW_LINKS);
+          }
+        }
+      } else if (TEMP_FILE_PREFIXES.stream().anyMatch(name::startsWith)
+          && isOlder(item, TEMP_FILE_MIN_AGE)) {
+        this.logger.accept("Removing leftover file: " + name);
+        result.freedBytes += Files.size(item);
+        Files.deleteIfExists(item);
+      }
+    }
+  }
+
+  private void removeStaleIndexFiles(final Result result) throws IOException {
+    final Path indexFolder = this.storeFolder.resolve(SdkIndexCache.FOLDER_NAME);
+    if (!Files.isDirectory(indexFolder)) {
+      return;
+    }
+    final List<Path> items;
+    try (final Stream<Path> stream = Files.list(indexFolder)) {
+      items = stream.filter(x -> Files.isRegularFile(x, LinkOption.NOFOLLOW_LINKS))
+          .collect(Collectors.toList());
+    }
+    for (final Path item : items) {
+      final String name = item.getFileName().toString();
+      // index file is rewritten on every load or revalidation of the list
+      final boolean stale = name.endsWith(".idx") && isOlder(item, INDEX_FILE_MAX_AGE);
+      final boolean leftover = name.endsWith(".tmp") && isOlder(item, TEMP_FILE_MIN_AGE);
+      if (stale || leftover) {
+        this.logger.accept("Removing cached GoSDK list: " + name);
+        result.freedBytes += Files.size(item);
+        Files.deleteIfExists(item);
+      }
+    }
+  }
+
+  private static final class Entry {
+    private final String name;
+    private final Path folder;
+    private final Map<Object, Long> files;
+    private final long accessed;
+
+    private Entry(final String name, final Path folder, final Map<Object, Long> files,
+                  final long accessed) {
+      this.name = name;
+      this.folder = folder;
+      this.files = files;
+      this.accessed = accessed;
+    }
+  }
+
+  public static final class Result {
+    private final List<String> evicted = new ArrayList<>();
+    private final List<String> locked = new ArrayList<>();
+    private final List<String> inUse = new ArrayList<>();
+    private long freedBytes;
+    private int remainingSdks;
+    private long remainingBytes;
+
+    private Result() {
+    }
+
+    public List<String> getEvicted() {
+      return Collections.unmodifiableList(this.evicted);
+    }
+
+    public List<String> getLocked() {
+      return Collections.unmodifiableList(this.locked);
+    }
+
+    public List<String> getInUse() {
+      return Collections.unmodifiableList(this.inUse);
+    }
+
+    public long getFreedBytes() {
+      return this.freedBytes;
+    }
+
+    public int getRemainingSdks() {
+      return this.remainingSdks;
+    }
+
+    public long getRemainingBytes() {
+      return this.remainingBytes;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "evicted=%d, locked=%d, in use=%d, freed=%d KB, remaining=%d GoSDK(s) %d KB",
+          this.evicted.size(), this.locked.size(), this.inUse.size(), this.freedBytes / 1024L,
+          this.remainingSdks, this.remainingBytes / 1024L);
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Exclusive lock of a GoSDK in the store folder. Threads of the same JVM are synchronized through
+ * a lock per lock file, processes are synchronized through OS file lock, so that waiters are
+ * blocked without polling and the lock is released by OS if the process is killed. The lock file
+ * is not removed after unlock.
+ */
+public final class SdkStoreLock implements AutoCloseable {
+
+  public static final String LOCK_FILE_PREFIX = ".flock.";
+
+  private static final Map<String, ReentrantLock> JVM_LOCKS = new ConcurrentHashMap<>();
+
+  private final Path lockFile;
+  private final ReentrantLock jvmLock;
+  private final FileChannel channel;
+  private final FileLock fileLock;
+
+  private SdkStoreLock(final Path lockFile, final ReentrantLock jvmLock,
+                       final FileChannel channel, final FileLock fileLock) {
+    this.lockFile = lockFile;
+    this.jvmLock = jvmLock;
+    this.channel = channel;
+    this.fileLock = fileLock;
+  }
+
+  public static Path findLockFile(final Path storeFolder, final String sdkName) {
+    return storeFolder.resolve(LOCK_FILE_PREFIX + sdkName);
+  }
+
+  private static ReentrantLock findJvmLock(final Path lockFile) {
+    return JVM_LOCKS.computeIfAbsent(lockFile.toAbsolutePath().normalize().toString(),
+        k -> new ReentrantLock());
+  }
+
+  /**
+   * Acquire lock, blocks until the lock is free.
+   *
+   * @param storeFolder        store folder, must not be null
+   * @param sdkName            name of SDK, must not be null
+   * @param notificationDelay  delay before notification about waiting
+   * @param waitingNotifier    consumer of waiting notification message, can be null
+   * @return acquired lock, must be closed
+   * @throws IOException if any IO error or interruption
+   */
+  public static SdkStoreLock acquire(final Path storeFolder, final String sdkName,
+                                     final Duration notificationDelay,
+                                     final Consumer<String> waitingNotifier)
+      throws IOException {
+    final Path lockFile = findLockFile(storeFolder, sdkName);
+    final ReentrantLock jvmLock = findJvmLock(lockFile);
+    try {
+      if (!jvmLock.tryLock(notificationDelay.toMillis(), TimeUnit.MILLISECONDS)) {
+        if (waitingNotifier != null) {
+          waitingNotifier.accept("Waiting for lock held by another thread: " + lockFile);
+        }
+        jvmLock.lockInterruptibly();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted during wait for lock: " + lockFile);
+    }
+    if (jvmLock.getHoldCount() > 1) {
+      // the file is already locked by the same thread
+      return new SdkStoreLock(lockFile, jvmLock, null, null);
+    }
+    FileChannel channel = null;
+    try {
+      channel = openChannel(lockFile);
+      FileLock fileLock = channel.tryLock();
+      if (fileLock == null) {
+        if (waitingNotifier != null) {
+          waitingNotifier.accept("Waiting for lock held by another process: " + lockFile);
+        }
+        fileLock = channel.lock();
+      }
+      return new SdkStoreLock(lockFile, jvmLock, channel, fileLock);
+    } catch (IOException | RuntimeException ex) {
+      closeQuietly(channel);
+      jvmLock.unlock();
+      throw ex;
+    }
+  }
+
+  /**
+   * Try to acquire lock without waiting.
+   *
+   * @param storeFolder store folder, must not be null
+   * @param sdkName     name of SDK, must not be null
+   * @return acquired lock or empty if the lock is held by another thread or process
+   * @throws IOException if any IO error
+   */
+  public static Optional<SdkStoreLock> tryAcquire(final Path storeFolder, final String sdkName)
+      throws IOException {
+    final Path lockFile = findLockFile(storeFolder, sdkName);
+    final ReentrantLock jvmLock = findJvmLock(lockFile);
+    if (!jvmLock.tryLock()) {
+      return Optional.empty();
+    }
+    if (jvmLock.getHoldCount() > 1) {
+      return Optional.of(new SdkStoreLock(lockFile, jvmLock, null, null));
+    }
+    FileChannel channel = null;
+    try {
+      channel = openChannel(lockFile);
+      final FileLock fileLock = channel.tryLock();
+      if (fileLock == null) {
+        closeQuietly(channel);
+        jvmLock.unlock();
+        return Optional.empty();
+      }
+      return Optional.of(new SdkStoreLock(lockFile, jvmLock, channel, fileLock));
+    } catch (IOException | RuntimeException ex) {
+      closeQuietly(channel);
+      jvmLock.unlock();
+      throw ex;
+    }
+  }
+
+  private static FileChannel openChannel(final Path lockFile) throws IOException {
+    return FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+  }
+
+  private static void closeQuietly(final FileChannel channel) {
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException ex) {
+        // ignore
+      }
+    }
+  }
+
+  public Path getLockFile() {
+    return this.lockFile;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      if (this.fileLock != null) {
+        try {
+          this.fileLock.release();
+        } finally {
+          this.channel.close();
+        }
+      }
+    } finally {
+      this.jvmLock.unlock();
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.io.input.ReadAheadInputStream;
+
+/**
+ * Standard GZIP decompressors.
+ */
+public enum StandardGzipDecompressor implements GzipDecompressor {
+  /**
+   * GZIPInputStream with default 512 bytes input buffer.
+   */
+  DEFAULT {
+    @Override
+    public InputStream decompress(final InputStream compressed) throws IOException {
+      return new GZIPInputStream(compressed);
+    }
+  },
+  /**
+   * GZIPInputStream with large input buffer, decreases number of native inflate calls.
+   */
+  LARGE_BUFFER {
+    @Override
+    public InputStream decompress(final InputStream compressed) throws IOException {
+      return new GZIPInputStream(compressed, INPUT_BUFFER_SIZE);
+    }
+  },
+  /**
+   * Large buffer decompressor with separate thread which inflates next block of data while the
+   * previous one is processed by the archive reader.
+   */
+  READ_AHEAD {
+    @Override
+    public InputStream decompress(final InputStream compressed) throws IOException {
+      return ReadAheadInputStream.builder()
+          .setInputStream(LARGE_BUFFER.decompress(compressed))
+          .setBufferSize(READ_AHEAD_BUFFER_SIZE)
+          .get();
+    }
+  };
+
+  private static final int INPUT_BUFFER_SIZE = 256 * 1024;
+  private static final int READ_AHEAD_BUFFER_SIZE = 1024 * 1024;
+}
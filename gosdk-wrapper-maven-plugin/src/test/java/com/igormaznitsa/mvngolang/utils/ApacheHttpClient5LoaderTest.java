@@ -0,0 +1,221 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import static com.igormaznitsa.mvngolang.GoRecordChecksum.CRC32C;
+import static com.igormaznitsa.mvngolang.GoRecordChecksum.SHA256;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ApacheHttpClient5LoaderTest {
+
+  private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d*)");
+  private static final String ETAG = "\"a1b2c3\"";
+
+  private final byte[] content = new byte[3 * 1024 * 1024 + 17];
+  private final AtomicInteger rangeRequests = new AtomicInteger();
+  private HttpServer server;
+  private boolean supportRanges;
+
+  @TempDir
+  Path tempFolder;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    new Random(12345L).nextBytes(this.content);
+    this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    this.server.createContext("/archive.tar.gz", this::handle);
+    this.server.createContext("/slow", exchange -> {
+      try {
+        Thread.sleep(5_000L);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+    });
+    this.server.setExecutor(Executors.newCachedThreadPool());
+    this.server.start();
+  }
+
+  @AfterEach
+  void stopServer() {
+    this.server.stop(0);
+  }
+
+  private void handle(final HttpExchange exchange) throws IOException {
+    if (this.supportRanges) {
+      exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+    }
+    exchange.getResponseHeaders().add("ETag", ETAG);
+    exchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+    if ("HEAD".equals(exchange.getRequestMethod())) {
+      exchange.getResponseHeaders().add("Content-Length", Integer.toString(this.content.length));
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+      return;
+    }
+    final String range = exchange.getRequestHeaders().getFirst("Range");
+    final Matcher matcher = range == null ? null : RANGE.matcher(range);
+    try (OutputStream out = exchange.getResponseBody()) {
+      final String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+      if (this.supportRanges && matcher != null && matcher.matches()
+          && (ifRange == null || ETAG.equals(ifRange))) {
+        this.rangeRequests.incrementAndGet();
+        final int start = Integer.parseInt(matcher.group(1));
+        final int end = matcher.group(2).isEmpty() ? this.content.length - 1 :
+            Integer.parseInt(matcher.group(2));
+        exchange.getResponseHeaders()
+            .add("Content-Range", "bytes " + start + '-' + end + '/' + this.content.length);
+        exchange.sendResponseHeaders(206, end - start + 1);
+        out.write(this.content, start, end - start + 1);
+      } else {
+        exchange.sendResponseHeaders(200, this.content.length);
+        out.write(this.content);
+      }
+    }
+  }
+
+  private String makeUri() {
+    return "http://127.0.0.1:" + this.server.getAddress().getPort() + "/archive.tar.gz";
+  }
+
+  private HttpClient makeClient() {
+    return ApacheHttpClient5Loader.INSTANCE.createHttpClient(null, false, Duration.ofSeconds(10));
+  }
+
+  @Test
+  void testSegmentedLoad() throws Exception {
+    this.supportRanges = true;
+    final Path target = this.tempFolder.resolve("loaded.bin");
+    ApacheHttpClient5Loader.loadResourceSegmented(this.makeClient(), this.makeUri(), target, 4,
+        512 * 1024, (loaded, total, progress) -> {
+        }, null, null, null);
+    assertEquals(4, this.rangeRequests.get());
+    assertArrayEquals(this.content, Files.readAllBytes(target));
+  }
+
+  @Test
+  void testSegmentedLoadFallbackToSingleStream() throws Exception {
+    this.supportRanges = false;
+    final Path target = this.tempFolder.resolve("loaded.bin");
+    ApacheHttpClient5Loader.loadResourceSegmented(this.makeClient(), this.makeUri(), target, 4,
+        512 * 1024, (loaded, total, progress) -> {
+        }, null, null, null);
+    assertEquals(0, this.rangeRequests.get());
+    assertArrayEquals(this.content, Files.readAllBytes(target));
+  }
+
+  @Test
+  void testResumableLoadContinuesPartialFile() throws Exception {
+    this.supportRanges = true;
+    final Path target = this.tempFolder.resolve("loaded.bin");
+    final Path state = this.tempFolder.resolve("loaded.bin.state");
+    final int loaded = 1024 * 1024 + 3;
+    Files.write(target, Arrays.copyOf(this.content, loaded));
+    Files.writeString(state,
+        "uri=" + this.makeUri().replace(":", "\\:") + "\nvalidator=" + ETAG + "\nloaded=" +
+            loaded + '\n');
+
+    final AtomicLong firstReported = new AtomicLong(-1L);
+    final ChecksumDigester digester = new ChecksumDigester(List.of(SHA256, CRC32C));
+    ApacheHttpClient5Loader.loadResourceResumable(this.makeClient(), this.makeUri(), target, state,
+        (done, total, progress) -> firstReported.compareAndSet(-1L, done), null, null, digester);
+    assertEquals(1, this.rangeRequests.get());
+    assertTrue(firstReported.get() > loaded);
+    assertArrayEquals(this.content, Files.readAllBytes(target));
+    assertEquals(this.content.length, digester.getLength());
+    assertEquals(DigestUtils.sha256Hex(this.content), digester.getHex(SHA256));
+    assertEquals(SHA256.makeHex(new ByteArrayInputStream(this.content)), digester.getHex(SHA256));
+    assertEquals(CRC32C.makeHex(new ByteArrayInputStream(this.content)), digester.getHex(CRC32C));
+  }
+
+  @Test
+  void testResumableLoadRestartsForChangedResource() throws Exception {
+    this.supportRanges = true;
+    final Path target = this.tempFolder.resolve("loaded.bin");
+    final Path state = this.tempFolder.resolve("loaded.bin.state");
+    Files.write(target, new byte[4096]);
+    Files.writeString(state,
+        "uri=" + this.makeUri().replace(":", "\\:") + "\nvalidator=\"old\"\nloaded=4096\n");
+
+    ApacheHttpClient5Loader.loadResourceResumable(this.makeClient(), this.makeUri(), target, state,
+        (done, total, progress) -> {
+        }, null, null, null);
+    assertEquals(0, this.rangeRequests.get());
+    assertArrayEquals(this.content, Files.readAllBytes(target));
+  }
+
+  @Test
+  void testLoadResourceAsStringCancelled() {
+    final String uri = "http://127.0.0.1:" + this.server.getAddress().getPort() + "/slow";
+    final long start = System.currentTimeMillis();
+    assertThrows(IOException.class,
+        () -> ApacheHttpClient5Loader.loadResourceAsString("GET", this.makeClient(), uri, null,
+            request -> new Timer(true).schedule(new TimerTask() {
+              @Override
+              public void run() {
+                request.cancel();
+              }
+            }, 200L)));
+    assertTrue(System.currentTimeMillis() - start < 4_000L);
+  }
+
+  @Test
+  void testProcessResourceStreamsContent() throws Exception {
+    final ChecksumDigester digester = new ChecksumDigester(List.of(SHA256));
+    final AtomicLong lastReported = new AtomicLong(-1L);
+    ApacheHttpClient5Loader.processResource(this.makeClient(), this.makeUri(),
+        (done, total, progress) -> lastReported.set(done), null,
+        (headers, inputStream) -> {
+          final InputStream digestingStream = digester.wrap(inputStream);
+          assertEquals(4096L, digestingStream.skip(4096L));
+          digestingStream.transferTo(OutputStream.nullOutputStream());
+        });
+    assertEquals(this.content.length, lastReported.get());
+    assertEquals(this.content.length, digester.getLength());
+    assertEquals(DigestUtils.sha256Hex(this.content), digester.getHex(SHA256));
+  }
+
+  @Test
+  void testProcessResourceCancelledByConsumer() throws Exception {
+    final AtomicReference<Cancellable> request = new AtomicReference<>();
+    final AtomicLong lastReported = new AtomicLong(-1L);
+    ApacheHttpClient5Loader.processResource(this.makeClient(), this.makeUri(),
+        (done, total, progress) -> lastReported.set(done), null, request::set,
+        (headers, inputStream) -> {
+          assertEquals(1024, inputStream.readNBytes(1024).length);
+          request.get().cancel();
+        });
+    assertTrue(lastReported.get() < this.content.length);
+  }
+}
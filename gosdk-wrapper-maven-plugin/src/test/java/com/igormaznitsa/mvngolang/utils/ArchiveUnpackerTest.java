@@ -0,0 +1,146 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class ArchiveUnpackerTest {
+
+  private final Map<String, byte[]> files = new LinkedHashMap<>();
+  private byte[] archive;
+
+  @TempDir
+  Path tempFolder;
+
+  @BeforeEach
+  void makeArchive() throws IOException {
+    final Random random = new Random(777L);
+    for (int i = 0; i < 300; i++) {
+      final byte[] data = new byte[random.nextInt(i % 50 == 0 ? 5 * 1024 * 1024 : 20000)];
+      random.nextBytes(data);
+      this.files.put("go/dir" + (i % 7) + "/file" + i + ".bin", data);
+    }
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    try (final GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+      writeTarEntry(gzip, "go/", null);
+      for (final Map.Entry<String, byte[]> e : this.files.entrySet()) {
+        writeTarEntry(gzip, e.getKey(), e.getValue());
+      }
+      gzip.write(new byte[1024]);
+    }
+    this.archive = buffer.toByteArray();
+  }
+
+  private static void writeTarEntry(final OutputStream out, final String name, final byte[] data)
+      throws IOException {
+    final byte[] header = new byte[512];
+    final int size = data == null ? 0 : data.length;
+    putTarField(header, 0, 100, name);
+    putTarField(header, 100, 8, data == null ? "0000755" : "0000644");
+    putTarField(header, 108, 8, "0000000");
+    putTarField(header, 116, 8, "0000000");
+    putTarField(header, 124, 12, String.format("%011o", size));
+    putTarField(header, 136, 12, String.format("%011o", 0));
+    Arrays.fill(header, 148, 156, (byte) ' ');
+    header[156] = (byte) (data == null ? '5' : '0');
+    putTarField(header, 257, 6, "ustar");
+    putTarField(header, 263, 2, "00");
+    int checksum = 0;
+    for (final byte b : header) {
+      checksum += b & 0xFF;
+    }
+    putTarField(header, 148, 7, String.format("%06o", checksum));
+    out.write(header);
+    if (data != null) {
+      out.write(data);
+      out.write(new byte[(512 - size % 512) % 512]);
+    }
+  }
+
+  private static void putTarField(final byte[] header, final int offset, final int length,
+                                  final String value) {
+    final byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+    System.arraycopy(bytes, 0, header, offset, Math.min(bytes.length, length));
+  }
+
+  private void assertUnpacked(final Path folder) throws IOException {
+    for (final Map.Entry<String, byte[]> e : this.files.entrySet()) {
+      assertArrayEquals(e.getValue(), Files.readAllBytes(folder.resolve(e.getKey())), e.getKey());
+    }
+  }
+
+  @Test
+  void testUnpackStream() throws Exception {
+    final Path folder = this.tempFolder.resolve("sequential");
+    ArchiveUnpacker.INSTANCE.unpackArchive(new ByteArrayInputStream(this.archive),
+        folder.toFile(), null);
+    assertUnpacked(folder);
+  }
+
+  @ParameterizedTest
+  @EnumSource(StandardGzipDecompressor.class)
+  void testUnpackStreamWithGzipDecompressor(final StandardGzipDecompressor decompressor)
+      throws Exception {
+    final Path folder = this.tempFolder.resolve(decompressor.name());
+    ArchiveUnpacker.INSTANCE.withGzipDecompressor(decompressor)
+        .unpackArchive(new ByteArrayInputStream(this.archive), folder.toFile(), null);
+    assertUnpacked(folder);
+  }
+
+  @Test
+  void testFindGzipDecompressor() {
+    assertSame(StandardGzipDecompressor.READ_AHEAD, GzipDecompressor.find(" read_ahead "));
+    assertThrows(IllegalArgumentException.class,
+        () -> GzipDecompressor.find(String.class.getName()));
+  }
+
+  @Test
+  void testUnpackStreamWithWriterThreads() throws Exception {
+    final ArchiveUnpacker unpacker = ArchiveUnpacker.INSTANCE.withWriterThreads(4);
+    assertEquals(4, unpacker.getWriterThreads());
+    final Path folder = this.tempFolder.resolve("concurrent");
+    unpacker.unpackArchive(new ByteArrayInputStream(this.archive), folder.toFile(), null);
+    assertTrue(Files.isDirectory(folder.resolve("go")));
+    assertUnpacked(folder);
+  }
+
+  @Test
+  void testUnpackZipFileWithWriterThreads() throws Exception {
+    final Path zip = this.tempFolder.resolve("archive.zip");
+    try (final ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+      out.putNextEntry(new ZipEntry("go/"));
+      out.closeEntry();
+      for (final Map.Entry<String, byte[]> e : this.files.entrySet()) {
+        out.putNextEntry(new ZipEntry(e.getKey()));
+        out.write(e.getValue());
+        out.closeEntry();
+      }
+    }
+    final Path folder = this.tempFolder.resolve("zip");
+    ArchiveUnpacker.INSTANCE.withWriterThreads(4)
+        .unpackArchive(zip.toFile(), folder.toFile(), null);
+    assertUnpacked(folder);
+  }
+}
@@ -0,0 +1,103 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import static com.igormaznitsa.mvngolang.GoRecordChecksum.SHA256;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ContentAddressedStoreTest {
+
+  @TempDir
+  Path tempFolder;
+
+  private static Path write(final Path file, final String text) throws Exception {
+    Files.createDirectories(file.getParent());
+    return Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void testSharedFilesLinkedToSameBlob() throws Exception {
+    final ContentAddressedStore store =
+        new ContentAddressedStore(this.tempFolder.resolve(ContentAddressedStore.FOLDER_NAME));
+
+    final Path sdk1 = this.tempFolder.resolve("go1.25.1");
+    write(sdk1.resolve("src/shared.go"), "package shared");
+    write(sdk1.resolve("VERSION"), "go1.25.1");
+    final Path sdk2 = this.tempFolder.resolve("go1.25.2");
+    write(sdk2.resolve("src/shared.go"), "package shared");
+    write(sdk2.resolve("VERSION"), "go1.25.2");
+
+    final ContentAddressedStore.Result result1 = store.materialize(sdk1);
+    assertTrue(result1.isCompleted());
+    assertEquals(2, result1.getStored());
+    assertEquals(0, result1.getLinked());
+
+    final ContentAddressedStore.Result result2 = store.materialize(sdk2);
+    assertTrue(result2.isCompleted());
+    assertEquals(1, result2.getStored());
+    assertEquals(1, result2.getLinked());
+    assertEquals("package shared".length(), result2.getSavedBytes());
+
+    assertTrue(Files.isSameFile(sdk1.resolve("src/shared.go"), sdk2.resolve("src/shared.go")));
+    assertArrayEquals("go1.25.2".getBytes(StandardCharsets.UTF_8),
+        Files.readAllBytes(sdk2.resolve("VERSION")));
+  }
+
+  @Test
+  void testDamagedBlobReplaced() throws Exception {
+    final ContentAddressedStore store =
+        new ContentAddressedStore(this.tempFolder.resolve(ContentAddressedStore.FOLDER_NAME));
+
+    final Path sdk1 = this.tempFolder.resolve("go1.25.1");
+    final Path shared1 = write(sdk1.resolve("src/shared.go"), "package shared");
+    store.materialize(sdk1);
+    // content of the shared inode is changed but size is the same
+    write(shared1, "package SHARED");
+
+    final Path sdk2 = this.tempFolder.resolve("go1.25.2");
+    final Path shared2 = write(sdk2.resolve("src/shared.go"), "package shared");
+    final ContentAddressedStore.Result result =
+        new ContentAddressedStore(store.getRoot()).materialize(sdk2);
+    assertEquals(1, result.getStored());
+    assertEquals(0, result.getLinked());
+
+    assertArrayEquals("package shared".getBytes(StandardCharsets.UTF_8),
+        Files.readAllBytes(shared2));
+    final String sha256 = ChecksumDigester.digest(shared2, List.of(SHA256)).getHex(SHA256);
+    assertTrue(Files.isSameFile(shared2, store.findBlob(sha256)));
+    assertFalse(Files.isSameFile(shared1, shared2));
+  }
+
+  @Test
+  void testFastManifestOfLinkedSdks() throws Exception {
+    final ContentAddressedStore store =
+        new ContentAddressedStore(this.tempFolder.resolve(ContentAddressedStore.FOLDER_NAME));
+
+    final Path sdk1 = this.tempFolder.resolve("go1.25.1");
+    write(sdk1.resolve("src/shared.go"), "package shared");
+    Files.setLastModifiedTime(sdk1.resolve("src/shared.go"), FileTime.fromMillis(1000L));
+    store.materialize(sdk1);
+    final SdkManifest manifest1 = SdkManifest.create(sdk1, false);
+
+    // the same content installed later with another modification time
+    final Path sdk2 = this.tempFolder.resolve("go1.25.2");
+    write(sdk2.resolve("src/shared.go"), "package shared");
+    write(sdk2.resolve("VERSION"), "go1.25.2");
+    Files.setLastModifiedTime(sdk2.resolve("src/shared.go"), FileTime.fromMillis(2000L));
+    assertEquals(1, store.materialize(sdk2).getLinked());
+    final SdkManifest manifest2 = SdkManifest.create(sdk2, false);
+
+    assertTrue(manifest1.findDamaged(sdk1, false).isEmpty());
+    assertTrue(manifest2.findDamaged(sdk2, false).isEmpty());
+    assertEquals(1000L, Files.getLastModifiedTime(sdk2.resolve("src/shared.go")).toMillis());
+  }
+}
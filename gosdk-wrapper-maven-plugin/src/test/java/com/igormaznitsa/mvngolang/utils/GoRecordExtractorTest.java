@@ -4,13 +4,17 @@ import static com.igormaznitsa.mvngolang.GoRecordChecksum.MD5;
 import static com.igormaznitsa.mvngolang.GoRecordChecksum.SHA256;
 import static com.igormaznitsa.mvngolang.utils.GoRecordExtractor.concatUrl;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.igormaznitsa.mvngolang.GoRecord;
 import java.io.IOException;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 
@@ -28,6 +32,22 @@ class GoRecordExtractorTest {
     assertEquals("file:/home/hello.txt", concatUrl("https://go.dev/dl/", "file:/home/hello.txt"));
   }
 
+  @Test
+  void testSniffFormat() throws Exception {
+    assertEquals(SdkListFormat.HTML,
+        GoRecordExtractor.sniffFormat(null, this.loadResource("go.dev_dl_.html")).orElseThrow());
+    assertEquals(SdkListFormat.XML,
+        GoRecordExtractor.sniffFormat(null, this.loadResource("storage.googleapis.com.xml"))
+            .orElseThrow());
+    assertEquals(SdkListFormat.JSON,
+        GoRecordExtractor.sniffFormat(null, this.loadResource("go_sdks.json")).orElseThrow());
+    assertEquals(SdkListFormat.PLAIN_TEXT,
+        GoRecordExtractor.sniffFormat(null, this.loadResource("plain_text.txt")).orElseThrow());
+    assertEquals(SdkListFormat.JSON,
+        GoRecordExtractor.sniffFormat("application/json; charset=utf-8", "").orElseThrow());
+    assertTrue(GoRecordExtractor.sniffFormat(null, " \n\t").isEmpty());
+  }
+
   @Test
   void testParseText() throws Exception {
     final String text = this.loadResource("plain_text.txt");
@@ -73,6 +93,28 @@ class GoRecordExtractorTest {
     assertEquals(21, recordList.size());
   }
 
+  @Test
+  void testCollectGoogleApisRecordsStopsOnKey() throws Exception {
+    final String text = this.loadResource("storage.googleapis.com.xml");
+    final Map<String, List<GoRecord.GoFile>> recordMap = new HashMap<>();
+    final ListBucketStreamParser.Page page = GoRecordExtractor.collectGoogleApisRecords(
+        "https://storage.googleapis.com/golang/", new StringReader(text), recordMap,
+        "go1.11.1.linux-amd64.tar.gz"::equals);
+    assertTrue(page.isStopped());
+    assertTrue(page.getCount() < 1000);
+    final GoRecord.GoFile last = recordMap.get("go1.11.1").get(recordMap.get("go1.11.1").size() - 1);
+    assertEquals("go1.11.1.linux-amd64.tar.gz", last.getFileName());
+    assertEquals("https://storage.googleapis.com/golang/go1.11.1.linux-amd64.tar.gz",
+        last.getLink());
+    assertNotNull(last.getChecksum().get(MD5));
+
+    final ListBucketStreamParser.Page fullPage = GoRecordExtractor.collectGoogleApisRecords("",
+        new StringReader(text), new HashMap<>(), null);
+    assertFalse(fullPage.isStopped());
+    assertEquals(1000, fullPage.getCount());
+    assertEquals("go1.11.8.windows-amd64.zip.sha256", fullPage.getNextMarker());
+  }
+
   @Test
   void testParseJson() throws Exception {
     final String text = this.loadResource("go_sdks.json");
@@ -99,4 +141,23 @@ class GoRecordExtractorTest {
     assertTrue(file2.getChecksum().isEmpty());
   }
 
-}
\ No newline at end of file
+  @Test
+  void testFindSdkFile() throws Exception {
+    final GoRecordExtractor extractor = GoRecordExtractor.getInstance();
+    final GoRecord.GoFile htmlFile = extractor.findSdkFile("https://go.dev/dl/", null,
+            this.loadResource("go.dev_dl_.html"), SdkListFormat.DEFAULT_ORDER,
+            "go1.25.1.linux-amd64", List.of("tar.gz", "zip"))
+        .orElseThrow();
+    assertEquals("go1.25.1.linux-amd64.tar.gz", htmlFile.getFileName());
+    assertEquals("https://go.dev/dl/go1.25.1.linux-amd64.tar.gz", htmlFile.getLink());
+    assertNotNull(htmlFile.getChecksum().get(SHA256));
+
+    final GoRecord.GoFile jsonFile = extractor.findSdkFile("https://go.dev/dl/", null,
+        this.loadResource("go_sdks.json"), SdkListFormat.DEFAULT_ORDER, "go1.25.3",
+        List.of("tar.gz")).orElseThrow();
+    assertEquals("https://go.dev/dl/go1.25.3.tar.gz", jsonFile.getLink());
+
+    assertTrue(extractor.findSdkFile("", null, this.loadResource("plain_text.txt"),
+        SdkListFormat.DEFAULT_ORDER, "go1.99.1.linux-amd64", List.of("tar.gz")).isEmpty());
+  }
+}
@@ -0,0 +1,37 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LogFileSinkTest {
+
+  @TempDir
+  Path tempFolder;
+
+  @Test
+  void testBufferedAppend() throws Exception {
+    final Path file = this.tempFolder.resolve("out.log");
+    Files.writeString(file, "existing\n");
+
+    final LogFileSink sink = new LogFileSink(file, 1024, 0L);
+    sink.write("line1\n", StandardCharsets.UTF_8);
+    assertEquals("existing\n", Files.readString(file));
+
+    final byte[] large = "x".repeat(2000).getBytes(StandardCharsets.UTF_8);
+    sink.write(large, 0, large.length);
+    assertEquals("existing\nline1\n" + "x".repeat(2000), Files.readString(file));
+
+    sink.write("line2\n", StandardCharsets.UTF_8);
+    sink.close();
+    sink.close();
+    assertEquals("existing\nline1\n" + "x".repeat(2000) + "line2\n", Files.readString(file));
+    assertThrows(IOException.class, () -> sink.write("line3\n", StandardCharsets.UTF_8));
+  }
+}
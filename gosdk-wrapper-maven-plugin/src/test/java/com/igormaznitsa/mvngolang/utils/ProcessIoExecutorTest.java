@@ -0,0 +1,19 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ProcessIoExecutorTest {
+
+  @Test
+  void testExecutesTasks() throws Exception {
+    assertEquals(Runtime.version().feature() >= 21, ProcessIoExecutor.isVirtual());
+    final Thread thread =
+        ProcessIoExecutor.getExecutor().submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+    assertTrue(thread.isDaemon());
+    assertTrue(thread.getName().startsWith("gosdk-process-io-"));
+  }
+}
@@ -0,0 +1,114 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ProcessOutputPumpTest {
+
+  private static final String TEXT = "first line\r\nвторая строка\n\nlast without eol";
+
+  @TempDir
+  Path tempFolder;
+
+  private static InputStream makeChoppedStream() {
+    return new FilterInputStream(new ByteArrayInputStream(TEXT.getBytes(StandardCharsets.UTF_8))) {
+      @Override
+      public int read(final byte[] b, final int off, final int len) throws IOException {
+        return super.read(b, off, Math.min(len, 3));
+      }
+    };
+  }
+
+  @Test
+  void testLinesAndRawSink() throws Exception {
+    final List<String> lines = new ArrayList<>();
+    final List<IOException> errors = new ArrayList<>();
+    final Path file = this.tempFolder.resolve("out.log");
+    try (final LogFileSink sink = new LogFileSink(file, 1024, 0L)) {
+      new ProcessOutputPump(makeChoppedStream(), sink, StandardCharsets.UTF_8, lines::add,
+          errors::add).run();
+    }
+    assertEquals(List.of("first line", "вторая строка", "", "last without eol"), lines);
+    assertEquals(TEXT, Files.readString(file, StandardCharsets.UTF_8));
+    assertTrue(errors.isEmpty());
+  }
+
+  @Test
+  void testRawSinkOnly() throws Exception {
+    final List<IOException> errors = new ArrayList<>();
+    final Path file = this.tempFolder.resolve("out.log");
+    try (final LogFileSink sink = new LogFileSink(file, 1024, 0L)) {
+      final ProcessOutputPump pump =
+          new ProcessOutputPump(makeChoppedStream(), sink, StandardCharsets.UTF_8, null,
+              errors::add);
+      pump.run();
+      assertEquals(TEXT.getBytes(StandardCharsets.UTF_8).length, pump.getPumpedBytes());
+    }
+    assertEquals(TEXT, Files.readString(file, StandardCharsets.UTF_8));
+    assertTrue(errors.isEmpty());
+  }
+
+  @Test
+  void testSinkFlushedWhenStreamIdle() throws Exception {
+    final List<IOException> errors = new ArrayList<>();
+    final Path file = this.tempFolder.resolve("out.log");
+    final PipedOutputStream processOutput = new PipedOutputStream();
+    final PipedInputStream input = new PipedInputStream(processOutput);
+    try (final LogFileSink sink = new LogFileSink(file, 1024, 0L)) {
+      final Thread thread = new Thread(
+          new ProcessOutputPump(input, sink, StandardCharsets.UTF_8, null, errors::add));
+      thread.start();
+      processOutput.write("idle line\n".getBytes(StandardCharsets.UTF_8));
+      processOutput.flush();
+
+      final long deadline = System.currentTimeMillis() + 10_000L;
+      while (Files.size(file) == 0L && System.currentTimeMillis() < deadline) {
+        Thread.sleep(20L);
+      }
+      assertEquals("idle line\n", Files.readString(file, StandardCharsets.UTF_8));
+
+      processOutput.close();
+      thread.join(10_000L);
+    }
+    assertTrue(errors.isEmpty());
+  }
+
+  @Test
+  void testChunkWithoutEolFlushedWhenStreamIdle() throws Exception {
+    final List<IOException> errors = new ArrayList<>();
+    final Path file = this.tempFolder.resolve("out.log");
+    final PipedOutputStream processOutput = new PipedOutputStream();
+    final PipedInputStream input = new PipedInputStream(processOutput);
+    try (final LogFileSink sink = new LogFileSink(file, 1024, 0L)) {
+      final Thread thread = new Thread(
+          new ProcessOutputPump(input, sink, StandardCharsets.UTF_8, null, errors::add));
+      thread.start();
+      processOutput.write("progress 50%\r".getBytes(StandardCharsets.UTF_8));
+      processOutput.flush();
+
+      final long deadline = System.currentTimeMillis() + 10_000L;
+      while (Files.size(file) == 0L && System.currentTimeMillis() < deadline) {
+        Thread.sleep(20L);
+      }
+      assertEquals("progress 50%\r", Files.readString(file, StandardCharsets.UTF_8));
+
+      processOutput.close();
+      thread.join(10_000L);
+    }
+    assertTrue(errors.isEmpty());
+  }
+}
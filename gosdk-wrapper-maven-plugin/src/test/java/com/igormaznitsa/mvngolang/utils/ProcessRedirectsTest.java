@@ -0,0 +1,67 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+class ProcessRedirectsTest {
+
+  @TempDir
+  Path tempFolder;
+
+  @Test
+  void testRedirectDecision() {
+    final File out = this.tempFolder.resolve("out.log").toFile();
+    final File err = this.tempFolder.resolve("err.log").toFile();
+
+    ProcessBuilder builder = ProcessRedirects.configure(new ProcessBuilder(), out, err, false, true);
+    assertFalse(builder.redirectErrorStream());
+    assertEquals(ProcessBuilder.Redirect.appendTo(out), builder.redirectOutput());
+    assertEquals(ProcessBuilder.Redirect.appendTo(err), builder.redirectError());
+
+    builder = ProcessRedirects.configure(new ProcessBuilder(), out, out, true, true);
+    assertTrue(builder.redirectErrorStream());
+    assertEquals(ProcessBuilder.Redirect.appendTo(out), builder.redirectOutput());
+
+    builder = ProcessRedirects.configure(new ProcessBuilder(), null, null, false, true);
+    assertTrue(builder.redirectErrorStream());
+    assertEquals(ProcessBuilder.Redirect.DISCARD, builder.redirectOutput());
+
+    builder = ProcessRedirects.configure(new ProcessBuilder(), out, err, false, false);
+    assertFalse(builder.redirectErrorStream());
+    assertEquals(ProcessBuilder.Redirect.PIPE, builder.redirectOutput());
+    assertEquals(ProcessBuilder.Redirect.PIPE, builder.redirectError());
+
+    builder = ProcessRedirects.configure(new ProcessBuilder(), out, out, true, false);
+    assertFalse(builder.redirectErrorStream());
+
+    builder = ProcessRedirects.configure(new ProcessBuilder(), out, null, false, false);
+    assertTrue(builder.redirectErrorStream());
+    assertEquals(ProcessBuilder.Redirect.PIPE, builder.redirectOutput());
+  }
+
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testDirectRedirectIntoSeparateFiles() throws Exception {
+    final File out = this.tempFolder.resolve("out.log").toFile();
+    final File err = this.tempFolder.resolve("err.log").toFile();
+    Files.writeString(out.toPath(), "existing\n");
+
+    final Process process = ProcessRedirects.configure(
+        new ProcessBuilder("sh", "-c", "echo out; echo err 1>&2"), out, err, false, true).start();
+    assertTrue(process.waitFor(30, TimeUnit.SECONDS));
+    assertEquals(0, process.exitValue());
+
+    assertEquals("existing\nout\n", Files.readString(out.toPath()));
+    assertEquals("err\n", Files.readString(err.toPath()));
+  }
+}
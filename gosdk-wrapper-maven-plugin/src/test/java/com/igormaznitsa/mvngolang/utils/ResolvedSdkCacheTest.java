@@ -0,0 +1,31 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResolvedSdkCacheTest {
+
+  @TempDir
+  Path tempFolder;
+
+  @Test
+  void testStoreCacheValidatedByMarker() throws Exception {
+    final Path sdk = Files.createDirectories(this.tempFolder.resolve("go1.25.1.linux-amd64"));
+    assertTrue(ResolvedSdkCache.findInStore(this.tempFolder, "go1.25.1.linux-amd64").isEmpty());
+
+    ResolvedSdkCache.registerInStore(this.tempFolder, "go1.25.1.linux-amd64", sdk);
+    assertTrue(Files.isRegularFile(
+        ResolvedSdkCache.findMarkerFile(this.tempFolder, "go1.25.1.linux-amd64")));
+    assertEquals(Optional.of(sdk),
+        ResolvedSdkCache.findInStore(this.tempFolder, "go1.25.1.linux-amd64"));
+
+    Files.delete(ResolvedSdkCache.findMarkerFile(this.tempFolder, "go1.25.1.linux-amd64"));
+    assertTrue(ResolvedSdkCache.findInStore(this.tempFolder, "go1.25.1.linux-amd64").isEmpty());
+  }
+}
@@ -0,0 +1,62 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.igormaznitsa.mvngolang.GoRecord;
+import com.igormaznitsa.mvngolang.GoRecordChecksum;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SdkIndexCacheTest {
+
+  @TempDir
+  Path tempFolder;
+
+  @Test
+  void testWriteAndFind() throws Exception {
+    final String link = "https://storage.googleapis.com/golang/";
+    final SdkIndexCache cache = new SdkIndexCache(this.tempFolder);
+    assertTrue(cache.find(link, "go1.25.1.linux-amd64").isEmpty());
+
+    final List<GoRecord> records = List.of(
+        new GoRecord("go1.25.1", List.of(
+            new GoRecord.GoFile("go1.25.1.linux-amd64.tar.gz",
+                "https://storage.googleapis.com/golang/go1.25.1.linux-amd64.tar.gz",
+                Map.of(GoRecordChecksum.MD5, "0123456789abcdef", GoRecordChecksum.SHA256,
+                    "fedcba9876543210")),
+            new GoRecord.GoFile("go1.25.1.linux-amd64.zip",
+                "https://storage.googleapis.com/golang/go1.25.1.linux-amd64.zip", Map.of()))),
+        new GoRecord("go1.25.2", List.of()));
+    final long loaded = System.currentTimeMillis();
+    cache.write(new SdkIndexCache.Entry(link, "go1.25.1.linux-amd64", "\"etag\"", null, loaded,
+        records));
+
+    assertTrue(cache.find(link, null).isEmpty());
+    final SdkIndexCache.Entry entry = cache.find(link, "go1.25.1.linux-amd64").orElseThrow();
+    assertEquals("\"etag\"", entry.getEtag());
+    assertEquals(null, entry.getLastModified());
+    assertEquals(loaded, entry.getLoaded());
+    assertTrue(entry.isFresh(Duration.ofMinutes(1)));
+    assertFalse(entry.revalidated(null, null, loaded - 120_000L).isFresh(Duration.ofMinutes(1)));
+    assertEquals(2, entry.getRecords().size());
+    for (int i = 0; i < records.size(); i++) {
+      final GoRecord expected = records.get(i);
+      final GoRecord actual = entry.getRecords().get(i);
+      assertEquals(expected.getName(), actual.getName());
+      assertEquals(expected.getFiles().size(), actual.getFiles().size());
+      for (int f = 0; f < expected.getFiles().size(); f++) {
+        assertEquals(expected.getFiles().get(f).getFileName(),
+            actual.getFiles().get(f).getFileName());
+        assertEquals(expected.getFiles().get(f).getLink(), actual.getFiles().get(f).getLink());
+        assertEquals(expected.getFiles().get(f).getChecksum(),
+            actual.getFiles().get(f).getChecksum());
+      }
+    }
+  }
+}
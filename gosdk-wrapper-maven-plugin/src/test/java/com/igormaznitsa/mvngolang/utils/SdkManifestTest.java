@@ -0,0 +1,74 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SdkManifestTest {
+
+  @TempDir
+  Path tempFolder;
+
+  @Test
+  void testFindDamagedFiles() throws Exception {
+    final Path sdk = Files.createDirectories(this.tempFolder.resolve("sdk"));
+    Files.createDirectories(sdk.resolve("bin"));
+    Files.writeString(sdk.resolve("VERSION"), "go1.25.1");
+    Files.writeString(sdk.resolve("bin/go"), "executable");
+    Files.writeString(sdk.resolve("bin/gofmt"), "formatter");
+
+    final Path manifestFile = this.tempFolder.resolve(SdkManifest.MANIFEST_FILE_PREFIX + "sdk");
+    SdkManifest.create(sdk, true).write(manifestFile);
+    final SdkManifest manifest = SdkManifest.read(manifestFile).orElseThrow();
+    assertEquals(3, manifest.size());
+    assertTrue(manifest.hasHashes());
+    assertTrue(manifest.findDamaged(sdk, true).isEmpty());
+
+    final FileTime time = Files.getLastModifiedTime(sdk.resolve("bin/go"));
+    Files.writeString(sdk.resolve("bin/go"), "executabl_");
+    Files.setLastModifiedTime(sdk.resolve("bin/go"), time);
+    Files.delete(sdk.resolve("VERSION"));
+
+    assertEquals(List.of("VERSION"), manifest.findDamaged(sdk, false));
+    assertEquals(List.of("VERSION", "bin/go"), manifest.findDamaged(sdk, true));
+
+    Files.writeString(sdk.resolve("VERSION"), "go1.25.1");
+    Files.writeString(sdk.resolve("bin/go"), "executable");
+    manifest.refresh(sdk, List.of("VERSION", "bin/go"));
+    assertTrue(manifest.findDamaged(sdk, true).isEmpty());
+  }
+
+  @Test
+  void testLegacyFolderComparedWithArchive() throws Exception {
+    // folder installed by previous version, without manifest and completion marker
+    final Path legacy = Files.createDirectories(this.tempFolder.resolve("go1.25.1"));
+    Files.createDirectories(legacy.resolve("bin"));
+    Files.writeString(legacy.resolve("VERSION"), "go1.25.1");
+    Files.writeString(legacy.resolve("bin/go"), "executabl_");
+    Files.writeString(legacy.resolve("extra"), "local file");
+    Files.setLastModifiedTime(legacy.resolve("VERSION"), FileTime.fromMillis(1000L));
+
+    final Path reference = Files.createDirectories(this.tempFolder.resolve("reference"));
+    Files.createDirectories(reference.resolve("bin"));
+    Files.writeString(reference.resolve("VERSION"), "go1.25.1");
+    Files.writeString(reference.resolve("bin/go"), "executable");
+    Files.writeString(reference.resolve("bin/gofmt"), "formatter");
+
+    assertEquals(List.of("bin/go", "bin/gofmt"),
+        SdkManifest.replaceDifferentFiles(legacy, reference));
+    assertEquals("executable", Files.readString(legacy.resolve("bin/go")));
+    assertEquals("formatter", Files.readString(legacy.resolve("bin/gofmt")));
+    assertEquals("local file", Files.readString(legacy.resolve("extra")));
+    assertEquals(1000L, Files.getLastModifiedTime(legacy.resolve("VERSION")).toMillis());
+
+    final SdkManifest manifest = SdkManifest.create(legacy, false);
+    assertEquals(4, manifest.size());
+    assertTrue(manifest.findDamaged(legacy, false).isEmpty());
+  }
+}
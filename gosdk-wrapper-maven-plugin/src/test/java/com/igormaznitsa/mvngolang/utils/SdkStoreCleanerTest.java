@@ -0,0 +1,107 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SdkStoreCleanerTest {
+
+  @TempDir
+  Path tempFolder;
+
+  private void makeSdk(final String name, final long accessed) throws Exception {
+    Files.createDirectories(this.tempFolder.resolve(name).resolve("bin"));
+    Files.write(this.tempFolder.resolve(name).resolve("bin").resolve("go"), new byte[1024]);
+    SdkStoreCleaner.touch(this.tempFolder, name);
+    Files.setLastModifiedTime(SdkStoreCleaner.findAccessFile(this.tempFolder, name),
+        FileTime.fromMillis(accessed));
+  }
+
+  @Test
+  void testEvictLeastRecentlyUsed() throws Exception {
+    final long now = System.currentTimeMillis();
+    final long grace = SdkStoreCleaner.DEFAULT_IN_USE_GRACE.toMillis();
+    this.makeSdk("go1.23.0.linux-amd64", now - 4 * grace);
+    this.makeSdk("go1.24.0.linux-amd64", now - 3 * grace);
+    this.makeSdk("go1.25.0.linux-amd64", now - 2 * grace);
+    this.makeSdk("go1.25.1.linux-amd64", now);
+    Files.createDirectories(this.tempFolder.resolve(".unpackgo1.22.0.linux-amd64"));
+    final Path indexFolder =
+        Files.createDirectories(this.tempFolder.resolve(SdkIndexCache.FOLDER_NAME));
+    final Path staleIndex = Files.write(indexFolder.resolve("stale.idx"), new byte[16]);
+    Files.setLastModifiedTime(staleIndex, FileTime.fromMillis(now - 31 * 24 * 3600_000L));
+    final Path freshIndex = Files.write(indexFolder.resolve("fresh.idx"), new byte[16]);
+    final AtomicReference<SdkStoreCleaner.Result> result = new AtomicReference<>();
+
+    try (SdkStoreLock ignored = SdkStoreLock.tryAcquire(this.tempFolder, "go1.24.0.linux-amd64")
+        .orElseThrow()) {
+      final Thread thread = new Thread(() -> {
+        try {
+          result.set(new SdkStoreCleaner(this.tempFolder, 0L, 2, null,
+              SdkStoreCleaner.DEFAULT_IN_USE_GRACE, x -> {
+          }).prune(Set.of("go1.25.0.linux-amd64")));
+        } catch (Exception ex) {
+          throw new RuntimeException(ex);
+        }
+      });
+      thread.start();
+      thread.join();
+    }
+    assertEquals(List.of("go1.23.0.linux-amd64"), result.get().getEvicted());
+    assertEquals(List.of("go1.24.0.linux-amd64"), result.get().getLocked());
+    assertEquals(List.of("go1.25.0.linux-amd64", "go1.25.1.linux-amd64"),
+        result.get().getInUse());
+
+    assertFalse(Files.exists(this.tempFolder.resolve("go1.23.0.linux-amd64")));
+    assertFalse(Files.exists(this.tempFolder.resolve(".evictgo1.23.0.linux-amd64")));
+    assertFalse(Files.exists(this.tempFolder.resolve(".unpackgo1.22.0.linux-amd64")));
+    assertFalse(Files.exists(SdkStoreCleaner.findAccessFile(this.tempFolder, "go1.23.0.linux-amd64")));
+    assertTrue(Files.isDirectory(this.tempFolder.resolve("go1.24.0.linux-amd64")));
+    assertTrue(Files.isDirectory(this.tempFolder.resolve("go1.25.0.linux-amd64")));
+    assertTrue(Files.isDirectory(this.tempFolder.resolve("go1.25.1.linux-amd64")));
+    assertFalse(Files.exists(staleIndex));
+    assertTrue(Files.exists(freshIndex));
+    assertFalse(new SdkStoreCleaner(this.tempFolder, 0L, 2, null, null, x -> {
+    }).isAutoPruneDue());
+  }
+
+  @Test
+  void testSharedFilesCountedOnceAndExplicitPruneWithoutGrace() throws Exception {
+    final ContentAddressedStore store =
+        new ContentAddressedStore(this.tempFolder.resolve(ContentAddressedStore.FOLDER_NAME));
+    final long now = System.currentTimeMillis();
+    final byte[] unique = new byte[1024];
+    for (int i = 0; i < 2; i++) {
+      final String name = "go1.25." + i + ".linux-amd64";
+      this.makeSdk(name, now - 1000L * (2 - i));
+      Arrays.fill(unique, (byte) (i + 1));
+      Files.write(this.tempFolder.resolve(name).resolve("VERSION"), unique);
+      assumeTrue(store.materialize(this.tempFolder.resolve(name)).isCompleted());
+    }
+
+    final SdkStoreCleaner.Result notExceeded = new SdkStoreCleaner(this.tempFolder, 3 * 1024L, 0,
+        null, null, x -> {
+    }).prune(Set.of());
+    assertTrue(notExceeded.getEvicted().isEmpty());
+    assertEquals(3 * 1024L, notExceeded.getRemainingBytes());
+
+    final SdkStoreCleaner.Result result = new SdkStoreCleaner(this.tempFolder, 2 * 1024L, 0,
+        null, null, x -> {
+    }).prune(Set.of());
+    assertEquals(List.of("go1.25.0.linux-amd64"), result.getEvicted());
+    assertEquals(1024L, result.getFreedBytes());
+    assertEquals(2 * 1024L, result.getRemainingBytes());
+    assertTrue(Files.isRegularFile(this.tempFolder.resolve("go1.25.1.linux-amd64/bin/go")));
+  }
+}
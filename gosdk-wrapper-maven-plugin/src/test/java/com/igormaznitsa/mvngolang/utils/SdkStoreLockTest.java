@@ -0,0 +1,65 @@
+package com.igormaznitsa.mvngolang.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SdkStoreLockTest {
+
+  @TempDir
+  Path tempFolder;
+
+  private boolean tryLockInOtherThread() throws Exception {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return SdkStoreLock.tryAcquire(this.tempFolder, "go1.25.1").map(x -> {
+          try {
+            x.close();
+          } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+          }
+          return true;
+        }).orElse(false);
+      } catch (Exception ex) {
+        throw new IllegalStateException(ex);
+      }
+    }).get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void testLockBlocksOtherThreads() throws Exception {
+    final AtomicBoolean released = new AtomicBoolean();
+    final SdkStoreLock lock =
+        SdkStoreLock.acquire(this.tempFolder, "go1.25.1", Duration.ofSeconds(1), null);
+    assertTrue(Files.isRegularFile(lock.getLockFile()));
+    try (final SdkStoreLock ignored =
+             SdkStoreLock.acquire(this.tempFolder, "go1.25.1", Duration.ofSeconds(1), null)) {
+      assertFalse(this.tryLockInOtherThread());
+    }
+    assertFalse(this.tryLockInOtherThread());
+
+    final CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+      try (final SdkStoreLock ignored =
+               SdkStoreLock.acquire(this.tempFolder, "go1.25.1", Duration.ofMillis(10), null)) {
+        return released.get();
+      } catch (Exception ex) {
+        throw new IllegalStateException(ex);
+      }
+    });
+    Thread.sleep(200L);
+    assertFalse(waiter.isDone());
+    released.set(true);
+    lock.close();
+    assertEquals(true, waiter.get(5, TimeUnit.SECONDS));
+    assertTrue(this.tryLockInOtherThread());
+  }
+}